@@ -2,9 +2,11 @@ plugins {
     id("java")
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 val artefactVersion: String by project
+val javaVersion: String by project
 
 group = "com.onixbyte.helix"
 version = artefactVersion
@@ -13,11 +15,13 @@ tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
 
+// Build with `-PjavaVersion=21` to target Java 21, which is required by
+// `spring.threads.virtual.enabled`.
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
-    targetCompatibility = JavaVersion.VERSION_17
+    sourceCompatibility = JavaVersion.toVersion(javaVersion)
+    targetCompatibility = JavaVersion.toVersion(javaVersion)
     toolchain {
-        languageVersion = JavaLanguageVersion.of(17)
+        languageVersion = JavaLanguageVersion.of(javaVersion)
     }
 }
 
@@ -37,13 +41,16 @@ dependencies {
     implementation(libs.spring.boot.starter.redis)
     implementation(libs.spring.boot.starter.cache)
     implementation(libs.spring.boot.starter.security)
+    implementation(libs.spring.boot.starter.actuator)
     implementation(libs.mybatis.starter.core)
     implementation(libs.jackson.jsr310)
+    implementation(libs.jackson.smile)
+    implementation(libs.caffeine)
     testImplementation(libs.spring.boot.starter.test)
     testImplementation(libs.reactor.test)
     testImplementation(libs.spring.security.test)
     testImplementation(libs.mybatis.starter.test)
-    runtimeOnly(libs.postgres.driver)
+    implementation(libs.postgres.driver)
     testRuntimeOnly(libs.h2.database)
     testRuntimeOnly(libs.junit.launcher)
 }
@@ -51,3 +58,14 @@ dependencies {
 tasks.test {
     useJUnitPlatform()
 }
+
+// Benchmarks live in `src/jmh/java`. Run all of them with `./gradlew jmh`, or a single suite with
+// `./gradlew jmh -Pbenchmark=AuthorizationBenchmark`. Results are written to
+// `build/results/jmh/results.json`.
+jmh {
+    findProperty("benchmark")?.let { includes.add(it.toString()) }
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+}
@@ -90,6 +90,7 @@ CREATE TABLE users
 );
 
 CREATE INDEX users_username_index ON users (username);
+CREATE INDEX users_department_id_id_index ON users (department_id, id);
 
 --- Users Table Indexes ---
 CREATE UNIQUE INDEX uidx_users_country_code_phone_number
@@ -294,5 +295,22 @@ ON COLUMN settings.default_value IS 'Setting default value.';
 INSERT INTO settings(name, description, type, value, default_value)
 VALUES ('captcha-setting::enabled', 'Whether captcha is enabled.', 'BOOLEAN'::SettingType, 'true',
         'false'),
+       ('captcha-setting::type', 'Type of captchas, one of JPEG, PNG, WEBP, SIGNED or PROOF_OF_WORK.',
+        'STRING'::SettingType, NULL, 'JPEG'),
        ('auth-setting::register-enabled', 'Whether register is enabled', 'BOOLEAN'::SettingType,
-        'true', 'false');
\ No newline at end of file
+        'true', 'false');
+
+--- Settings Change Notification ---
+CREATE OR REPLACE FUNCTION notify_settings_changed() RETURNS TRIGGER AS
+$$
+BEGIN
+    PERFORM pg_notify('settings_changed', COALESCE(NEW.name, OLD.name));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER settings_changed
+    AFTER INSERT OR UPDATE OR DELETE
+    ON settings
+    FOR EACH ROW
+EXECUTE FUNCTION notify_settings_changed();
@@ -0,0 +1,149 @@
+package com.onixbyte.helix.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares handling bursts of I/O-bound requests on a Tomcat-sized platform thread pool against
+ * one virtual thread per request, as enabled by {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Each operation submits {@code concurrentRequests} requests at once and waits until all have
+ * completed, so the request throughput is {@code concurrentRequests} divided by the reported time.
+ * Backing services are replaced by sleeps of typical round-trip times, and database work holds one
+ * of {@code connectionPoolSize} connections the way HikariCP does:
+ * <ul>
+ *   <li>{@code users} follows {@code GET /users}: a Redis lookup of the token owner, then the page
+ *       query and the count query on a pooled connection</li>
+ *   <li>{@code assets} follows {@code POST /assets}: a Redis lookup, then the S3 upload and the
+ *       insert, both within the transaction of {@code AssetService.uploadFile}, which holds its
+ *       connection for the whole upload</li>
+ * </ul>
+ * The {@code virtual} variant needs Java 21, run it with
+ * {@code ./gradlew jmh -PjavaVersion=21 -Pbenchmark=RequestThreadingBenchmark}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    /**
+     * Default of {@code server.tomcat.threads.max}.
+     */
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private static final long REDIS_MILLIS = 1L;
+
+    private static final long QUERY_MILLIS = 5L;
+
+    private static final long S3_UPLOAD_MILLIS = 30L;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    @Param({"users", "assets"})
+    public String endpoint;
+
+    @Param({"200", "2000"})
+    public int concurrentRequests;
+
+    @Param({"10", "100"})
+    public int connectionPoolSize;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threading)
+                ? newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connections = new Semaphore(connectionPoolSize, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        var request = "users".equals(endpoint) ? (Runnable) this::getUsers : this::uploadAsset;
+        var completed = new CountDownLatch(concurrentRequests);
+        for (var i = 0; i < concurrentRequests; i++) {
+            executor.execute(() -> {
+                try {
+                    request.run();
+                } finally {
+                    completed.countDown();
+                }
+            });
+        }
+        completed.await();
+    }
+
+    private void getUsers() {
+        block(REDIS_MILLIS);
+        withConnection(() -> {
+            block(QUERY_MILLIS);
+            block(QUERY_MILLIS);
+        });
+    }
+
+    private void uploadAsset() {
+        block(REDIS_MILLIS);
+        withConnection(() -> {
+            block(S3_UPLOAD_MILLIS);
+            block(QUERY_MILLIS);
+        });
+    }
+
+    private void withConnection(Runnable work) {
+        connections.acquireUninterruptibly();
+        try {
+            work.run();
+        } finally {
+            connections.release();
+        }
+    }
+
+    private static void block(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            // looked up reflectively so that the benchmarks also compile for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, run with -PjavaVersion=21.", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor.", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import com.onixbyte.helix.constant.Status;
+import com.onixbyte.helix.constant.UserStatus;
+import com.onixbyte.helix.domain.entity.Asset;
+import com.onixbyte.helix.domain.entity.Authority;
+import com.onixbyte.helix.domain.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding cached values as JSON with {@link JacksonSerialiser} against
+ * Smile with {@link CacheValueSerialiser}.
+ * <p>
+ * The values are shaped like the entries of the caches on the authentication path: a user, the
+ * authorities of an administrator, and an asset. The encoded size of each value is printed once
+ * per fork, before the measurements, as {@code encoded-size value=<value> codec=<codec> bytes=<n>}.
+ * Decoding JSON goes through {@link CacheValueSerialiser} as well, which is how values written
+ * before a cache switched codec are read.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheValueSerialiserBenchmark {
+
+    @Param({"user", "authorities", "asset"})
+    public String value;
+
+    @Param({"JSON", "SMILE"})
+    public CacheCodec codec;
+
+    private CacheValueSerialiser serialiser;
+    private Object decoded;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serialiser = CacheValueSerialiser.of(codec);
+        decoded = switch (value) {
+            case "user" -> buildUser();
+            case "authorities" -> buildAuthorities(200);
+            case "asset" -> buildAsset();
+            default -> throw new IllegalArgumentException("Unknown value " + value + ".");
+        };
+        encoded = serialiser.serialize(decoded);
+        System.out.printf("encoded-size value=%s codec=%s bytes=%d%n", value, codec, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serialiser.serialize(decoded);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serialiser.deserialize(encoded);
+    }
+
+    private static User buildUser() {
+        var now = LocalDateTime.now();
+        return User.builder()
+                .id(1_843_210_987_654_321L)
+                .username("zihluwang")
+                .password("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoO5u6uCCP4S3NUkXRQo0fGQKW2vCLmgK6")
+                .fullName("Zihlu Wang")
+                .email("zihluwang@example.com")
+                .countryCode("+44")
+                .phoneNumber("7700900123")
+                .avatarUrl("https://s3.my.app/avatar/1843210987654321.png")
+                .status(UserStatus.ACTIVE)
+                .departmentId(1_843_210_987_600_001L)
+                .positionId(1_843_210_987_600_002L)
+                .createdAt(now.minusYears(1))
+                .updatedAt(now)
+                .build();
+    }
+
+    private static ArrayList<Authority> buildAuthorities(int count) {
+        var now = LocalDateTime.now();
+        var authorities = new ArrayList<Authority>(count);
+        for (var i = 1; i <= count; i++) {
+            authorities.add(Authority.builder()
+                    .id((long) i)
+                    .code("system:module-" + i + ":read")
+                    .name("Read module " + i)
+                    .description("Allows reading the records of module " + i + ".")
+                    .status(Status.ACTIVE)
+                    .createdAt(now.minusYears(1))
+                    .updatedAt(now)
+                    .build());
+        }
+        return authorities;
+    }
+
+    private static Asset buildAsset() {
+        return Asset.builder()
+                .id(1_843_210_987_654_999L)
+                .key("avatar/1843210987654321.png")
+                .uploadBy(1_843_210_987_654_321L)
+                .uploadTime(LocalDateTime.now())
+                .build();
+    }
+}
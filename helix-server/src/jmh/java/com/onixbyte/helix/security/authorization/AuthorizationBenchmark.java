@@ -0,0 +1,119 @@
+package com.onixbyte.helix.security.authorization;
+
+import com.onixbyte.helix.domain.entity.Authority;
+import com.onixbyte.helix.domain.entity.User;
+import com.onixbyte.helix.repository.AuthorityRepository;
+import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares authorising a method with {@code @PreAuthorize("hasAnyAuthority(...)")} against
+ * {@link RequireAuthority} checked by {@link AuthoritySetAuthorizationManager}.
+ * <p>
+ * The user holds {@code authorityCount} authorities, and the required one is registered last, which
+ * is the worst case for the linear scan behind {@code hasAnyAuthority}. Both paths see the same
+ * {@link UsernamePasswordAuthentication}, built the way {@code TokenAuthenticationFilter} builds it.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorizationBenchmark {
+
+    private static final String REQUIRED_AUTHORITY = "system:user:read";
+
+    @Param({"10", "300"})
+    public int authorityCount;
+
+    private PreAuthorizeAuthorizationManager preAuthorizeAuthorizationManager;
+    private AuthoritySetAuthorizationManager authoritySetAuthorizationManager;
+    private SimpleMethodInvocation preAuthorizeInvocation;
+    private SimpleMethodInvocation requireAuthorityInvocation;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        var authorities = new ArrayList<Authority>(authorityCount);
+        for (var i = 1; i < authorityCount; i++) {
+            authorities.add(Authority.builder().id((long) i).code("system:benchmark:" + i).build());
+        }
+        authorities.add(Authority.builder().id((long) authorityCount).code(REQUIRED_AUTHORITY).build());
+
+        var authorityRegistry = new AuthorityRegistry(new AuthorityRepository() {
+            @Override
+            public List<Authority> selectByUserId(Long userId) {
+                return authorities;
+            }
+
+            @Override
+            public List<Authority> selectAll() {
+                return authorities;
+            }
+        });
+
+        var grantedAuthorities = authorities.stream()
+                .map(Authority::asGrantedAuthority)
+                .toList();
+        var user = User.builder().id(1L).username("benchmark").build();
+        var _authentication = UsernamePasswordAuthentication.authenticated(user, grantedAuthorities,
+                authorityRegistry.toAuthoritySet(grantedAuthorities));
+        authentication = () -> _authentication;
+
+        var target = new SecuredTarget();
+        preAuthorizeInvocation = new SimpleMethodInvocation(target, SecuredTarget.class.getMethod("preAuthorize"));
+        requireAuthorityInvocation = new SimpleMethodInvocation(target, SecuredTarget.class.getMethod("requireAuthority"));
+
+        preAuthorizeAuthorizationManager = new PreAuthorizeAuthorizationManager();
+        authoritySetAuthorizationManager = new AuthoritySetAuthorizationManager(authorityRegistry);
+
+        // both managers cache per-method state on first use, which is not what is measured
+        if (!spel().isGranted() || !bitset().isGranted()) {
+            throw new IllegalStateException("Benchmark user is not authorised.");
+        }
+    }
+
+    @Benchmark
+    public AuthorizationResult spel() {
+        return preAuthorizeAuthorizationManager.authorize(authentication, preAuthorizeInvocation);
+    }
+
+    @Benchmark
+    public AuthorizationResult bitset() {
+        return authoritySetAuthorizationManager.authorize(authentication, requireAuthorityInvocation);
+    }
+
+    /**
+     * Methods secured the way controllers were secured before and after
+     * {@link RequireAuthority} was introduced.
+     */
+    public static class SecuredTarget {
+
+        @PreAuthorize("hasAnyAuthority('" + REQUIRED_AUTHORITY + "')")
+        public void preAuthorize() {
+        }
+
+        @RequireAuthority(REQUIRED_AUTHORITY)
+        public void requireAuthority() {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.helix.client.RedisClient;
+import com.onixbyte.helix.exception.BizException;
+import com.onixbyte.helix.properties.CaptchaProperties;
+import com.onixbyte.helix.properties.TokenProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what proof-of-work challenges cost the server compared with what they cost the client.
+ * <ul>
+ *   <li>{@code issue} seals a new challenge, which is the cost of every anonymous captcha
+ *       request</li>
+ *   <li>{@code verifyAccepted} seals and verifies a challenge with a valid nonce, including
+ *       consuming it, so the verification cost is the difference to {@code issue}</li>
+ *   <li>{@code verifyRejected} seals a challenge and verifies a wrong nonce, which is what a login
+ *       flood sends</li>
+ *   <li>{@code solve} seals a challenge and finds a nonce the way a client does</li>
+ * </ul>
+ * Every operation works on a new challenge, because challenges expire and can only be consumed
+ * once. Publishing consumed challenges is skipped, so no Redis server is needed.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProofOfWorkBenchmark {
+
+    @Param({"16", "20"})
+    public int difficulty;
+
+    private SignedCaptchaManager signedCaptchaManager;
+
+    @Setup
+    public void setUp() {
+        var redisClient = new RedisClient(null, new SimpleMeterRegistry()) {
+            @Override
+            public void publish(String channel, Object message) {
+            }
+        };
+        // a short validity period rotates the consumed-challenge filter before it fills up
+        var captchaProperties = new CaptchaProperties(6,
+                new CaptchaProperties.Pool(false, 256, 1024, 2),
+                new CaptchaProperties.Signed("benchmark-secret", Duration.ofSeconds(2), "helix:captcha:consumed", 2_000_000L),
+                new CaptchaProperties.ProofOfWork(difficulty, difficulty, 50));
+        var tokenProperties = new TokenProperties("Helix Server", "benchmark-token-secret", Duration.ofHours(2),
+                Duration.ofDays(7), 10_000L, false, "helix:token:revocation", 100_000L, Duration.ofMinutes(1),
+                Duration.ofMinutes(5));
+        signedCaptchaManager = new SignedCaptchaManager(redisClient, captchaProperties, tokenProperties,
+                new RedisMessageListenerContainer());
+    }
+
+    @Benchmark
+    public String issue() {
+        return signedCaptchaManager.sealProofOfWork(difficulty);
+    }
+
+    @Benchmark
+    public String verifyAccepted() {
+        // with no required zero bits every nonce is valid
+        var _challenge = signedCaptchaManager.sealProofOfWork(0);
+        signedCaptchaManager.verify(_challenge, "0");
+        return _challenge;
+    }
+
+    @Benchmark
+    public BizException verifyRejected() {
+        try {
+            // a fixed nonce is only valid for one challenge in 2^difficulty
+            signedCaptchaManager.verify(signedCaptchaManager.sealProofOfWork(difficulty), "x");
+            return null;
+        } catch (BizException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long solve() throws NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("SHA-256");
+        var prefix = (signedCaptchaManager.sealProofOfWork(difficulty) + ":").getBytes(StandardCharsets.UTF_8);
+        for (var nonce = 0L; ; nonce++) {
+            digest.update(prefix);
+            var hash = digest.digest(Long.toString(nonce).getBytes(StandardCharsets.UTF_8));
+            if (leadingZeroBits(hash) >= difficulty) {
+                return nonce;
+            }
+        }
+    }
+
+    private static int leadingZeroBits(byte[] hash) {
+        var zeroBits = 0;
+        for (var b : hash) {
+            if (b != 0) {
+                return zeroBits + Integer.numberOfLeadingZeros(b & 0xFF) - 24;
+            }
+            zeroBits += 8;
+        }
+        return zeroBits;
+    }
+}
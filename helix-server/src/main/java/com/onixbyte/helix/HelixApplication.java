@@ -3,6 +3,7 @@ package com.onixbyte.helix;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for the Helix server application.
@@ -20,6 +21,10 @@ import org.springframework.cache.annotation.EnableCaching;
  * This enables the use of caching annotations such as {@code @Cacheable}, {@code @CacheEvict}, and
  * {@code @CachePut} throughout the application.
  * <p>
+ * <strong>Scheduling Support:</strong> The {@link EnableScheduling} annotation activates
+ * {@code @Scheduled} methods, which rebuild in-memory structures such as the username filter
+ * periodically.
+ * <p>
  * <strong>Auto-Configuration:</strong> The {@link SpringBootApplication} annotation combines
  * {@code @Configuration}, {@code @EnableAutoConfiguration}, and {@code @ComponentScan}, providing
  * comprehensive auto-configuration capabilities and component discovery for the entire application.
@@ -33,10 +38,12 @@ import org.springframework.cache.annotation.EnableCaching;
  * @see SpringBootApplication
  * @see MapperScan
  * @see EnableCaching
+ * @see EnableScheduling
  * @see SpringApplication
  * @since 1.0.0
  */
 @EnableCaching
+@EnableScheduling
 @SpringBootApplication
 public class HelixApplication {
 
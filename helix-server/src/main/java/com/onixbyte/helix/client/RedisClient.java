@@ -1,56 +1,386 @@
 package com.onixbyte.helix.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Component
 public class RedisClient {
 
+    private static final Logger log = LoggerFactory.getLogger(RedisClient.class);
+
+    /**
+     * Equivalent of {@code GETDEL} for servers older than Redis 6.2. The script is sent by its
+     * SHA-1 digest and only uploaded again if the server does not know it.
+     */
+    private static final RedisScript<Object> GET_AND_DELETE_SCRIPT = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if value then
+                redis.call('DEL', KEYS[1])
+            end
+            return value
+            """, Object.class);
+
+    /**
+     * Equivalent of {@code GETDEL} over many keys for servers older than Redis 6.2, consuming all
+     * keys in a single atomic operation.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_AND_DELETE_ALL_SCRIPT = RedisScript.of("""
+            local values = redis.call('MGET', unpack(KEYS))
+            for i, value in ipairs(values) do
+                if value then
+                    redis.call('DEL', KEYS[i])
+                end
+            end
+            return values
+            """, List.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private volatile boolean getAndDeleteSupported = true;
 
     @Autowired
-    public RedisClient(RedisTemplate<String, Object> redisTemplate) {
+    public RedisClient(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
     public <T> void set(String key, T value) {
-        redisTemplate.opsForValue().set(key, value);
+        timerOf("set").record(() -> redisTemplate.opsForValue().set(key, value));
     }
 
     public <T> void set(String key, T value, Duration timeout) {
-        redisTemplate.opsForValue().set(key, value, timeout);
+        timerOf("set").record(() -> redisTemplate.opsForValue().set(key, value, timeout));
+    }
+
+    /**
+     * Set many values in a single round trip, all with the same time to live.
+     *
+     * @param values  values keyed by their keys
+     * @param timeout time to live of every key
+     * @see #multiSet(Map, Function)
+     */
+    public void multiSet(Map<String, ?> values, Duration timeout) {
+        multiSet(values, (key) -> timeout);
+    }
+
+    /**
+     * Set many values in a single round trip, each with its own time to live. The {@code SET}
+     * commands are pipelined rather than sent as one {@code MSET}, which cannot set a time to live.
+     * The keys are not written atomically.
+     *
+     * @param values  values keyed by their keys
+     * @param timeout resolves the time to live of each key, {@code null} keeps the key forever
+     */
+    public void multiSet(Map<String, ?> values, Function<String, Duration> timeout) {
+        if (values.isEmpty()) {
+            return;
+        }
+        timed("multi-set", () -> executePipelined((operations) -> values.forEach((key, value) -> {
+            var _timeout = timeout.apply(key);
+            if (Objects.isNull(_timeout)) {
+                operations.opsForValue().set(key, value);
+            } else {
+                operations.opsForValue().set(key, value, _timeout);
+            }
+        })));
+    }
+
+    /**
+     * Set the value only if the key does not exist yet.
+     *
+     * @param key     the key
+     * @param value   the value
+     * @param timeout time to live of the key
+     * @return {@code true} if the value was set, {@code false} if the key already existed
+     */
+    public <T> boolean setIfAbsent(String key, T value, Duration timeout) {
+        return Boolean.TRUE.equals(timed("set-if-absent", () -> redisTemplate.opsForValue().setIfAbsent(key, value, timeout)));
     }
 
     public Object get(String key) {
-        return redisTemplate.opsForValue().get(key);
+        return timed("get", () -> redisTemplate.opsForValue().get(key));
     }
 
     public <T> T get(String key, Class<T> type) {
-        var value = redisTemplate.opsForValue().get(key);
-        if (Objects.isNull(value)) {
-            return null;
+        return cast(get(key), type);
+    }
+
+    /**
+     * Get the values of many keys with a single {@code MGET}.
+     *
+     * @param keys the keys
+     * @return values in the order of {@code keys}, with {@code null} for keys that do not exist
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
         }
+        return Objects.requireNonNullElseGet(timed("multi-get", () -> redisTemplate.opsForValue().multiGet(keys)),
+                () -> Collections.nCopies(keys.size(), null));
+    }
 
-        if (type.isInstance(value)) {
-            return type.cast(value);
+    /**
+     * Get the values of many keys with a single {@code MGET}.
+     *
+     * @param keys the keys
+     * @param type expected type of the values
+     * @return values keyed by their keys in the order of {@code keys}, keys that do not exist are
+     * left out
+     */
+    public <T> Map<String, T> multiGet(Collection<String> keys, Class<T> type) {
+        return collect(keys, multiGet(keys), type);
+    }
+
+    /**
+     * Get the value of a key and delete the key in a single atomic operation, so that a value can
+     * be consumed at most once even by concurrent callers.
+     * <p>
+     * {@code GETDEL} is used where the server supports it, otherwise a Lua script does the same.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key does not exist
+     */
+    public Object getAndDelete(String key) {
+        return timed("get-and-delete", () -> doGetAndDelete(key));
+    }
+
+    private Object doGetAndDelete(String key) {
+        if (getAndDeleteSupported) {
+            try {
+                return redisTemplate.opsForValue().getAndDelete(key);
+            } catch (DataAccessException e) {
+                if (!isUnknownCommand(e)) {
+                    throw e;
+                }
+                getAndDeleteSupported = false;
+                log.info("Redis server does not support GETDEL, consuming keys with a Lua script instead.");
+            }
         }
+        return redisTemplate.execute(GET_AND_DELETE_SCRIPT, List.of(key));
+    }
 
-        throw new IllegalStateException("Cannot cast " + value.getClass().getName() + " to " + type.getName());
+    /**
+     * Get the value of a key and delete the key in a single atomic operation.
+     *
+     * @param key  the key
+     * @param type expected type of the value
+     * @return the value, or {@code null} if the key does not exist
+     * @see #getAndDelete(String)
+     */
+    public <T> T getAndDelete(String key, Class<T> type) {
+        return cast(getAndDelete(key), type);
+    }
+
+    /**
+     * Consume many keys in a single round trip. Each value is consumed at most once even by
+     * concurrent callers.
+     * <p>
+     * {@code GETDEL} commands are pipelined where the server supports them, otherwise a Lua script
+     * consumes all keys at once.
+     *
+     * @param keys the keys
+     * @param type expected type of the values
+     * @return values keyed by their keys in the order of {@code keys}, keys that do not exist are
+     * left out
+     * @see #getAndDelete(String)
+     */
+    public <T> Map<String, T> getAndDelete(Collection<String> keys, Class<T> type) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return timed("multi-get-and-delete", () -> doGetAndDelete(keys, type));
+    }
+
+    private <T> Map<String, T> doGetAndDelete(Collection<String> keys, Class<T> type) {
+        if (getAndDeleteSupported) {
+            try {
+                var values = executePipelined((operations) -> keys.forEach(operations.opsForValue()::getAndDelete));
+                return collect(keys, values, type);
+            } catch (DataAccessException e) {
+                if (!isUnknownCommand(e)) {
+                    throw e;
+                }
+                getAndDeleteSupported = false;
+                log.info("Redis server does not support GETDEL, consuming keys with a Lua script instead.");
+            }
+        }
+        var values = redisTemplate.execute(GET_AND_DELETE_ALL_SCRIPT, List.copyOf(keys));
+        return collect(keys, Objects.requireNonNullElseGet(values, List::of), type);
     }
 
     public Long increment(String key) {
-        return redisTemplate.opsForValue().increment(key);
+        return timed("increment", () -> redisTemplate.opsForValue().increment(key));
+    }
+
+    /**
+     * Increment the value of a key, and set the time to live when the key is created by this
+     * increment. Suitable for counters of fixed time windows.
+     *
+     * @param key     the key
+     * @param timeout time to live of a newly created key
+     * @return the value after the increment
+     */
+    public Long increment(String key, Duration timeout) {
+        return timed("increment", () -> {
+            var value = redisTemplate.opsForValue().increment(key);
+            if (Objects.equals(value, 1L)) {
+                redisTemplate.expire(key, timeout);
+            }
+            return value;
+        });
     }
 
     public Long decrement(String key) {
-        return redisTemplate.opsForValue().decrement(key);
+        return timed("decrement", () -> redisTemplate.opsForValue().decrement(key));
     }
 
     public boolean delete(String key) {
-        return redisTemplate.delete(key);
+        return Boolean.TRUE.equals(timed("delete", () -> redisTemplate.delete(key)));
+    }
+
+    /**
+     * Delete many keys with a single {@code DEL}.
+     *
+     * @param keys the keys
+     * @return number of keys that existed and were deleted
+     */
+    public long delete(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+        return Objects.requireNonNullElse(timed("multi-delete", () -> redisTemplate.delete(keys)), 0L);
+    }
+
+    /**
+     * Get the remaining time to live of a key, to the millisecond.
+     *
+     * @param key the key
+     * @return remaining time to live, or {@code null} if the key does not exist or never expires
+     */
+    public Duration getExpire(String key) {
+        var millis = timed("get-expire", () -> redisTemplate.getExpire(key, TimeUnit.MILLISECONDS));
+        if (Objects.isNull(millis) || millis < 0) {
+            return null;
+        }
+        return Duration.ofMillis(millis);
+    }
+
+    /**
+     * Find keys matching the given pattern with {@code SCAN}, without blocking the server like
+     * {@code KEYS} does.
+     *
+     * @param pattern key pattern, e.g. {@code prefix::*}
+     * @return matching keys
+     */
+    public List<String> scan(String pattern) {
+        return timed("scan", () -> {
+            var keys = new ArrayList<String>();
+            try (var cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(1000L).build())) {
+                cursor.forEachRemaining(keys::add);
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * Publish a message to a pub/sub channel.
+     *
+     * @param channel channel name
+     * @param message the message
+     */
+    public void publish(String channel, Object message) {
+        timerOf("publish").record(() -> redisTemplate.convertAndSend(channel, message));
+    }
+
+    /**
+     * Send the commands issued on the given operations in a single pipeline, and wait for all
+     * replies at once. Commands called inside the pipeline return {@code null}, their results are
+     * returned from this method instead, deserialised like those of the other operations.
+     *
+     * @param operations issues the commands to pipeline
+     * @return results of the commands in the order they were issued
+     */
+    public List<Object> executePipelined(Consumer<RedisOperations<String, Object>> operations) {
+        return redisTemplate.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> _operations) {
+                operations.accept((RedisOperations<String, Object>) _operations);
+                return null;
+            }
+        });
+    }
+
+    private <T> T timed(String operation, Supplier<T> supplier) {
+        return timerOf(operation).record(supplier);
+    }
+
+    private Timer timerOf(String operation) {
+        return timers.computeIfAbsent(operation, (_operation) -> Timer.builder("redis.client.operation")
+                .description("Latency of operations made through RedisClient")
+                .tag("operation", _operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private <T> Map<String, T> collect(Collection<String> keys, List<?> values, Class<T> type) {
+        var result = new LinkedHashMap<String, T>();
+        var iterator = values.iterator();
+        for (var key : keys) {
+            if (!iterator.hasNext()) {
+                break;
+            }
+            var value = cast(iterator.next(), type);
+            if (Objects.nonNull(value)) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private <T> T cast(Object value, Class<T> type) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+
+        throw new IllegalStateException("Cannot cast " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    private boolean isUnknownCommand(DataAccessException e) {
+        var message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return Objects.nonNull(message) && message.contains("unknown command");
     }
 }
@@ -4,38 +4,93 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.onixbyte.helix.domain.entity.User;
 import com.onixbyte.helix.properties.TokenProperties;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import com.onixbyte.helix.security.authority.AuthoritySet;
 import com.onixbyte.helix.utils.DateTimeUtil;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
 
 @Component
 public class TokenClient {
 
+    /**
+     * Claim holding the user ID in a self-contained token.
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /**
+     * Claim holding the department ID in a self-contained token.
+     */
+    public static final String CLAIM_DEPARTMENT_ID = "did";
+
+    /**
+     * Claim holding the user status in a self-contained token.
+     */
+    public static final String CLAIM_STATUS = "sts";
+
+    /**
+     * Claim holding the encoded {@link AuthoritySet} in a self-contained token.
+     */
+    public static final String CLAIM_AUTHORITIES = "auth";
+
+    /**
+     * Claim holding the {@link AuthorityRegistry} version that the authorities were encoded with.
+     * Only self-contained tokens carry this claim.
+     */
+    public static final String CLAIM_AUTHORITY_VERSION = "av";
+
+    /**
+     * Claim holding the ID of the refresh token family issued together with the token, so that
+     * logging out can revoke the family.
+     */
+    public static final String CLAIM_REFRESH_FAMILY_ID = "fid";
+
     private final Algorithm algorithm;
     private final TokenProperties tokenProperties;
+    private final AuthorityRegistry authorityRegistry;
 
-    public TokenClient(Algorithm algorithm, TokenProperties tokenProperties) {
+    public TokenClient(Algorithm algorithm, TokenProperties tokenProperties, AuthorityRegistry authorityRegistry) {
         this.algorithm = algorithm;
         this.tokenProperties = tokenProperties;
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
-     * Generate a JSON Web Token to the current user.
+     * Generate a JSON Web Token to the current user. Every token carries a random ID in its
+     * {@code jti} claim, which identifies the token on revocation.
+     * <p>
+     * If self-contained tokens are enabled, the user ID, department ID, status and authorities are
+     * embedded in the token as well.
      *
-     * @param user current user
+     * @param user            current user
+     * @param authoritySet    authorities granted to the current user
+     * @param refreshFamilyId ID of the refresh token family issued with this token
      * @return a JWT starts with {@code Bearer} prefix
      */
-    public String generateToken(User user) {
+    public String generateToken(User user, AuthoritySet authoritySet, String refreshFamilyId) {
         var issuedAt = LocalDateTime.now();
         var expiresAt = issuedAt.plus(tokenProperties.validTime());
 
-        return JWT.create()
+        var builder = JWT.create()
+                .withJWTId(UUID.randomUUID().toString())
                 .withSubject(user.getUsername())
                 .withAudience("Helix Web")
                 .withIssuer(tokenProperties.issuer())
                 .withIssuedAt(DateTimeUtil.asInstant(issuedAt))
                 .withExpiresAt(DateTimeUtil.asInstant(expiresAt))
-                .sign(algorithm);
+                .withClaim(CLAIM_REFRESH_FAMILY_ID, refreshFamilyId);
+
+        if (tokenProperties.selfContained()) {
+            builder.withClaim(CLAIM_USER_ID, user.getId())
+                    .withClaim(CLAIM_DEPARTMENT_ID, user.getDepartmentId())
+                    .withClaim(CLAIM_STATUS, Objects.nonNull(user.getStatus()) ? user.getStatus().name() : null)
+                    .withClaim(CLAIM_AUTHORITIES, authoritySet.encode())
+                    .withClaim(CLAIM_AUTHORITY_VERSION, authorityRegistry.version());
+        }
+
+        return builder.sign(algorithm);
     }
 }
@@ -0,0 +1,99 @@
+package com.onixbyte.helix.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for a string that has been
+ * {@link #put(String) put}, and returns {@code true} for a string that has not been put with
+ * roughly the false positive probability given at construction, as long as no more than the
+ * expected number of strings have been put.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * Create an empty Bloom filter.
+     *
+     * @param expectedInsertions        number of strings expected to be put
+     * @param falsePositiveProbability desired false positive probability, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+        }
+
+        var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Put a string into this filter.
+     *
+     * @param value the string
+     */
+    public void put(String value) {
+        var hash1 = hash(value);
+        var hash2 = mix(hash1);
+        for (var i = 0; i < hashCount; i++) {
+            var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            var wordIndex = (int) (bit >>> 6);
+            var mask = 1L << bit;
+            var word = words.get(wordIndex);
+            while ((word & mask) == 0 && !words.compareAndSet(wordIndex, word, word | mask)) {
+                word = words.get(wordIndex);
+            }
+        }
+    }
+
+    /**
+     * Check whether a string might have been put into this filter.
+     *
+     * @param value the string
+     * @return {@code false} if the string has definitely not been put, {@code true} otherwise
+     */
+    public boolean mightContain(String value) {
+        var hash1 = hash(value);
+        var hash2 = mix(hash1);
+        for (var i = 0; i < hashCount; i++) {
+            var bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of the string.
+     */
+    private static long hash(String value) {
+        var hash = 0xCBF29CE484222325L;
+        for (var i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * SplitMix64 finaliser, used to spread the bits of a hash and to derive the second hash.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return (value ^ (value >>> 31)) | 1L;
+    }
+}
@@ -0,0 +1,84 @@
+package com.onixbyte.helix.common.bloom;
+
+import java.time.Duration;
+
+/**
+ * A Bloom filter for strings that only need to be remembered for a limited time.
+ * <p>
+ * Strings are put into the current generation and looked up in both the current and the previous
+ * generation. Every {@code generationLifetime} the previous generation is dropped and a new empty
+ * generation becomes current, so a string is remembered for at least one and at most two
+ * lifetimes, and the filter does not fill up over time.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class RotatingBloomFilter {
+
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final long generationLifetimeNanos;
+
+    private volatile Generations generations;
+
+    /**
+     * Create an empty rotating Bloom filter.
+     *
+     * @param expectedInsertions        number of strings expected to be put within one lifetime
+     * @param falsePositiveProbability desired false positive probability of each generation
+     * @param generationLifetime        how long a generation stays current
+     */
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveProbability, Duration generationLifetime) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.generationLifetimeNanos = generationLifetime.toNanos();
+        this.generations = new Generations(newFilter(), newFilter(), System.nanoTime() + generationLifetimeNanos);
+    }
+
+    /**
+     * Put a string into the current generation.
+     *
+     * @param value the string
+     */
+    public void put(String value) {
+        rotateIfDue().current().put(value);
+    }
+
+    /**
+     * Check whether a string might have been put within the remembered generations.
+     *
+     * @param value the string
+     * @return {@code false} if the string has definitely not been put, {@code true} otherwise
+     */
+    public boolean mightContain(String value) {
+        var current = rotateIfDue();
+        return current.current().mightContain(value) || current.previous().mightContain(value);
+    }
+
+    private Generations rotateIfDue() {
+        var current = generations;
+        if (System.nanoTime() - current.rotateAt() < 0) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = generations;
+            if (System.nanoTime() - current.rotateAt() >= 0) {
+                current = new Generations(newFilter(), current.current(), System.nanoTime() + generationLifetimeNanos);
+                generations = current;
+            }
+            return current;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    private record Generations(
+            BloomFilter current,
+            BloomFilter previous,
+            long rotateAt
+    ) {
+    }
+}
@@ -1,17 +1,37 @@
 package com.onixbyte.helix.config;
 
+import com.onixbyte.helix.extension.cache.BatchingCacheWriter;
+import com.onixbyte.helix.extension.cache.ClientTrackingDecorator;
+import com.onixbyte.helix.extension.cache.DecoratingCacheManager;
+import com.onixbyte.helix.extension.cache.EarlyRefreshDecorator;
+import com.onixbyte.helix.extension.cache.InstrumentingDecorator;
+import com.onixbyte.helix.extension.cache.NearCacheDecorator;
+import com.onixbyte.helix.extension.cache.SingleFlightDecorator;
+import com.onixbyte.helix.extension.cache.TransactionAwareDecorator;
+import com.onixbyte.helix.extension.redis.serializer.CacheValueSerialiser;
+import com.onixbyte.helix.extension.redis.serializer.CompressingSerialiser;
 import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import com.onixbyte.helix.extension.redis.serializer.MeasuringSerialiser;
+import com.onixbyte.helix.properties.CacheProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Configuration class for Redis-based caching components.
@@ -24,6 +44,7 @@ import java.time.Duration;
  * The configuration includes:
  * <ul>
  *   <li>Custom {@link RedisCacheManager} with JSON serialisation support</li>
+ *   <li>An optional in-process tier in front of Redis for selected caches</li>
  *   <li>Configured {@link RedisTemplate} for direct Redis operations</li>
  * </ul>
  *
@@ -34,6 +55,7 @@ import java.time.Duration;
  * @since 1.0.0
  */
 @Configuration
+@EnableConfigurationProperties({CacheProperties.class})
 public class CacheConfig {
 
     /**
@@ -43,30 +65,206 @@ public class CacheConfig {
      * keys and {@link GenericJackson2JsonRedisSerializer} for cache values. This setup ensures that
      * complex objects can be stored and retrieved from Redis cache whilst maintaining readability
      * and compatibility with JSON-based systems.
+     * <p>
+     * Caches configured in {@link CacheProperties} may write their values as Smile instead, see
+     * {@link CacheValueSerialiser}. Values of either encoding are read by every cache. Caches with
+     * a compression threshold compress large values, see {@link CompressingSerialiser}.
+     * <p>
+     * The Redis cache manager is wrapped by a {@link DecoratingCacheManager}, which lets only one
+     * caller load a missing entry, reloads hot entries before they expire and places an in-process
+     * tier in front of the caches that enable one in {@link CacheProperties}. The in-process tier of
+     * caches with client tracking is invalidated by Redis itself, see
+     * {@link ClientTrackingDecorator}. Every cache has its own time to live, randomly shortened or
+     * extended by its jitter.
+     * <p>
+     * Writes made inside a transaction are deferred until it commits and then sent to Redis in a
+     * single pipeline, see {@link TransactionAwareDecorator}. Hits, misses, latencies and value
+     * sizes of every cache are recorded in the meter registry, see {@link InstrumentingDecorator}.
      *
-     * @param connectionFactory the Redis connection factory used to establish connections
-     * @return a configured {@link RedisCacheManager} with custom serialisation settings
+     * @param cacheWriter             writer sending cache commands to Redis
+     * @param cacheProperties         cache properties
+     * @param clientTrackingDecorator decorator adding the tracked in-process tier
+     * @param singleFlightDecorator   decorator coalescing concurrent misses
+     * @param earlyRefreshDecorator   decorator reloading entries before they expire
+     * @param nearCacheDecorator      decorator adding the in-process tier
+     * @param instrumentingDecorator  decorator recording cache metrics
+     * @param meterRegistry           registry of the compression and value size metrics
+     * @return a configured {@link CacheManager} backed by Redis
      * @see RedisCacheManager
      * @see GenericJackson2JsonRedisSerializer
      * @see RedisSerializationContext
      */
     @Bean
-    public RedisCacheManager cacheManager(
-            RedisConnectionFactory connectionFactory
+    public CacheManager cacheManager(
+            BatchingCacheWriter cacheWriter,
+            CacheProperties cacheProperties,
+            ClientTrackingDecorator clientTrackingDecorator,
+            SingleFlightDecorator singleFlightDecorator,
+            EarlyRefreshDecorator earlyRefreshDecorator,
+            NearCacheDecorator nearCacheDecorator,
+            InstrumentingDecorator instrumentingDecorator,
+            MeterRegistry meterRegistry
     ) {
-        var _keySerializer = RedisSerializer.string();
+        var cacheConfiguration = cacheConfigurationOf(null, CacheProperties.CacheSpec.DEFAULT, meterRegistry);
+
+        var builder = RedisCacheManager.RedisCacheManagerBuilder
+                .fromCacheWriter(cacheWriter)
+                .cacheDefaults(cacheConfiguration);
+        cacheProperties.specs().forEach((cacheName, spec) ->
+                builder.withCacheConfiguration(cacheName, cacheConfigurationOf(cacheName, spec, meterRegistry)));
+
+        var redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        // early refresh wraps the in-process tier, so that it sees every hit and its refreshes are announced
+        return new DecoratingCacheManager(redisCacheManager, List.of(clientTrackingDecorator, singleFlightDecorator, nearCacheDecorator,
+                earlyRefreshDecorator, instrumentingDecorator, new TransactionAwareDecorator(cacheWriter)));
+    }
+
+    /**
+     * Creates the writer through which every cache reaches Redis, and which can send the writes
+     * of many cache operations in a single pipeline.
+     *
+     * @param connectionFactory the Redis connection factory used to establish connections
+     * @return the batching cache writer
+     * @see BatchingCacheWriter#batch(Runnable)
+     */
+    @Bean
+    public BatchingCacheWriter batchingCacheWriter(RedisConnectionFactory connectionFactory) {
+        return new BatchingCacheWriter(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), connectionFactory);
+    }
 
-        var cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+    private RedisCacheConfiguration cacheConfigurationOf(
+            String cacheName,
+            CacheProperties.CacheSpec spec,
+            MeterRegistry meterRegistry
+    ) {
+        // values compressed before compression was turned off must remain readable
+        var valueSerializer = new CompressingSerialiser(CacheValueSerialiser.of(spec.codec()));
+        if (spec.compressionEnabled()) {
+            var compressionRatio = DistributionSummary.builder("cache.compression.ratio")
+                    .description("Ratio of uncompressed to compressed size of compressed cache values")
+                    .tag("cache", cacheName)
+                    .register(meterRegistry);
+            valueSerializer = new CompressingSerialiser(CacheValueSerialiser.of(spec.codec()),
+                    (int) Math.min(Integer.MAX_VALUE, spec.compressionThreshold().toBytes()), compressionRatio);
+        }
+
+        // caches without settings share the default configuration, and so their size metrics
+        var sizeTag = Objects.requireNonNullElse(cacheName, "default");
+        var measuringSerializer = new MeasuringSerialiser(valueSerializer,
+                valueSizeSummary(meterRegistry, sizeTag, "write"),
+                valueSizeSummary(meterRegistry, sizeTag, "read"));
+
+        return RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(_keySerializer))
+                        .fromSerializer(RedisSerializer.string()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(JacksonSerialiser.INSTANCE))
-                .entryTtl(Duration.ofMinutes(90L));
+                        .fromSerializer(measuringSerializer))
+                .entryTtl((key, value) -> spec.jitteredTtl());
+    }
+
+    private DistributionSummary valueSizeSummary(MeterRegistry meterRegistry, String cacheName, String operation) {
+        return DistributionSummary.builder("cache.value.size")
+                .description("Size of cache values as stored in Redis")
+                .baseUnit("bytes")
+                .tags("cache", cacheName, "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the decorator that records hits, misses and latencies of every cache.
+     *
+     * @param meterRegistry registry of the cache metrics
+     * @return the instrumenting decorator
+     */
+    @Bean
+    public InstrumentingDecorator instrumentingDecorator(MeterRegistry meterRegistry) {
+        return new InstrumentingDecorator(meterRegistry);
+    }
+
+    /**
+     * Creates the decorator that lets Redis invalidate the in-process tier of the configured
+     * caches.
+     *
+     * @param cacheProperties   cache properties
+     * @param connectionFactory the Lettuce connection factory whose client opens the tracking
+     *                          connection
+     * @return the client tracking decorator
+     */
+    @Bean
+    public ClientTrackingDecorator clientTrackingDecorator(
+            CacheProperties cacheProperties,
+            RedisConnectionFactory connectionFactory
+    ) {
+        return new ClientTrackingDecorator(cacheProperties, connectionFactory);
+    }
+
+    /**
+     * Creates the decorator that coalesces concurrent misses of the same entry.
+     *
+     * @param cacheProperties cache properties
+     * @param redisTemplate   template used to take leases
+     * @return the single-flight decorator
+     */
+    @Bean
+    public SingleFlightDecorator singleFlightDecorator(
+            CacheProperties cacheProperties,
+            RedisTemplate<String, Object> redisTemplate
+    ) {
+        return new SingleFlightDecorator(cacheProperties, redisTemplate);
+    }
 
-        return RedisCacheManager.RedisCacheManagerBuilder
-                .fromConnectionFactory(connectionFactory)
-                .cacheDefaults(cacheConfiguration)
-                .build();
+    /**
+     * Creates the decorator that reloads entries before they expire.
+     *
+     * @param cacheProperties cache properties
+     * @param redisTemplate   template used to read the expiry of entries
+     * @return the early refresh decorator
+     */
+    @Bean
+    public EarlyRefreshDecorator earlyRefreshDecorator(
+            CacheProperties cacheProperties,
+            RedisTemplate<String, Object> redisTemplate
+    ) {
+        return new EarlyRefreshDecorator(cacheProperties, redisTemplate);
+    }
+
+    /**
+     * Creates the decorator that adds an in-process tier to the configured caches.
+     *
+     * @param cacheProperties cache properties
+     * @param redisTemplate   template used to publish invalidation messages
+     * @return the near cache decorator
+     */
+    @Bean
+    public NearCacheDecorator nearCacheDecorator(
+            CacheProperties cacheProperties,
+            RedisTemplate<String, Object> redisTemplate
+    ) {
+        return new NearCacheDecorator(cacheProperties, redisTemplate);
+    }
+
+    /**
+     * Creates the container that receives Redis pub/sub messages, such as the invalidation
+     * messages of the in-process cache tier.
+     *
+     * @param connectionFactory  the Redis connection factory used to establish connections
+     * @param cacheProperties    cache properties
+     * @param nearCacheDecorator listener of cache invalidation messages
+     * @return a Redis message listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            CacheProperties cacheProperties,
+            NearCacheDecorator nearCacheDecorator
+    ) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(nearCacheDecorator, new ChannelTopic(cacheProperties.invalidationChannel()));
+        return container;
     }
 
     /**
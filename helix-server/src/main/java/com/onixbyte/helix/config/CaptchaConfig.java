@@ -0,0 +1,18 @@
+package com.onixbyte.helix.config;
+
+import com.onixbyte.helix.properties.CaptchaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for captcha generation.
+ * <p>
+ * Enables configuration properties for captcha generation and the pre-generated captcha pool.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Configuration
+@EnableConfigurationProperties({CaptchaProperties.class})
+public class CaptchaConfig {
+}
@@ -1,24 +1,43 @@
 package com.onixbyte.helix.config;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.onixbyte.helix.filter.TokenAuthenticationFilter;
 import com.onixbyte.helix.properties.CorsProperties;
+import com.onixbyte.helix.properties.PasswordProperties;
 import com.onixbyte.helix.properties.TokenProperties;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import com.onixbyte.helix.security.authorization.AuthoritySetAuthorizationManager;
+import com.onixbyte.helix.security.authorization.RequireAuthority;
 import com.onixbyte.helix.security.entrypoint.UnauthorizedAuthenticationEntryPoint;
+import com.onixbyte.helix.security.password.PasswordHashingExecutor;
 import com.onixbyte.helix.security.provider.UsernamePasswordAuthenticationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.ExceptionTranslationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -26,6 +45,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -40,8 +60,8 @@ import java.util.stream.Stream;
  *   <li>CORS (Cross-Origin Resource Sharing) configuration</li>
  *   <li>Stateless session management</li>
  *   <li>JWT-based authentication with HMAC256 algorithm</li>
- *   <li>BCrypt password encoding</li>
- *   <li>Method-level security annotations</li>
+ *   <li>Delegating password encoding with BCrypt by default, hashed on a bounded executor</li>
+ *   <li>Method-level security annotations, including {@link RequireAuthority}</li>
  *   <li>Custom authentication providers</li>
  * </ul>
  *
@@ -55,7 +75,7 @@ import java.util.stream.Stream;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
-@EnableConfigurationProperties({TokenProperties.class, CorsProperties.class})
+@EnableConfigurationProperties({TokenProperties.class, CorsProperties.class, PasswordProperties.class})
 public class SecurityConfig {
 
     /**
@@ -133,9 +153,11 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((customiser) -> customiser
                         .requestMatchers("/error", "/error/**").permitAll()
+                        // liveness and readiness probes come from the orchestrator without a token
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers("/captcha", "/captcha/**").permitAll()
-                        .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/auth/logout").authenticated()
+                        .requestMatchers("/auth/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling((exceptionHandling) -> exceptionHandling
@@ -147,21 +169,57 @@ public class SecurityConfig {
     /**
      * Creates a password encoder for secure password hashing.
      * <p>
-     * This method provides a {@link BCryptPasswordEncoder} instance that uses the BCrypt hashing
-     * algorithm to securely encode passwords. BCrypt is a adaptive hash function designed for
-     * password hashing that includes a salt to protect against rainbow table attacks and is
-     * computationally expensive to resist brute-force attacks.
+     * This method provides a {@link DelegatingPasswordEncoder} that hashes new passwords with the
+     * algorithm configured in {@link PasswordProperties} and stores its ID as a prefix, such as
+     * {@code {bcrypt}}. Hashes of any supported algorithm can be verified, and hashes without a
+     * prefix are treated as BCrypt, which is how passwords were stored before the prefix was
+     * introduced.
      * <p>
-     * The encoder is used throughout the application for password verification during
-     * authentication and for encoding new passwords during user registration.
+     * {@link PasswordEncoder#upgradeEncoding(String)} reports hashes of another algorithm, hashes
+     * without a prefix and BCrypt hashes of a lower strength, so they can be replaced on login.
      *
-     * @return a {@link BCryptPasswordEncoder} instance for secure password operations
+     * @param properties the password configuration properties
+     * @return a {@link DelegatingPasswordEncoder} instance for secure password operations
+     * @see DelegatingPasswordEncoder
      * @see BCryptPasswordEncoder
      * @see PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordProperties properties) {
+        var bcryptPasswordEncoder = new BCryptPasswordEncoder(properties.bcryptStrength());
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcryptPasswordEncoder,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+
+        var passwordEncoder = new DelegatingPasswordEncoder(properties.encodingId(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcryptPasswordEncoder);
+        return passwordEncoder;
+    }
+
+    /**
+     * Creates the executor that runs password hashing off the request threads.
+     * <p>
+     * The executor uses a fixed number of threads and a bounded queue from
+     * {@link PasswordProperties}, and rejects further requests immediately. Its pool is published
+     * to Micrometer under the name {@code password-hashing}.
+     *
+     * @param passwordEncoder the password encoder
+     * @param properties      the password configuration properties
+     * @param meterRegistry   the meter registry
+     * @return a {@link PasswordHashingExecutor}
+     * @see PasswordHashingExecutor
+     */
+    @Bean
+    public PasswordHashingExecutor passwordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            PasswordProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        var passwordHashingExecutor = new PasswordHashingExecutor(passwordEncoder,
+                properties.effectiveHashingThreads(), properties.queueCapacity());
+        ExecutorServiceMetrics.monitor(meterRegistry, passwordHashingExecutor.getExecutor(), "password-hashing");
+        return passwordHashingExecutor;
     }
 
     /**
@@ -206,4 +264,49 @@ public class SecurityConfig {
     public Algorithm algorithm(TokenProperties properties) {
         return Algorithm.HMAC256(properties.secret());
     }
+
+    /**
+     * Creates the JWT verifier shared by all requests.
+     * <p>
+     * A {@link JWTVerifier} is immutable and thread-safe, so a single instance built from
+     * {@link TokenProperties} is reused instead of building a new one for every request.
+     *
+     * @param algorithm  the algorithm used to sign tokens
+     * @param properties the token configuration properties containing the issuer
+     * @return a configured {@link JWTVerifier}
+     * @see JWTVerifier
+     */
+    @Bean
+    public JWTVerifier jwtVerifier(Algorithm algorithm, TokenProperties properties) {
+        return JWT.require(algorithm)
+                .withIssuer(properties.issuer())
+                .build();
+    }
+
+    /**
+     * Creates the method interceptor that enforces {@link RequireAuthority}.
+     * <p>
+     * The interceptor matches methods annotated with {@link RequireAuthority}, or declared in a
+     * type annotated with it, and authorises them with an
+     * {@link AuthoritySetAuthorizationManager}. It runs at the same position as
+     * {@code @PreAuthorize}.
+     * <p>
+     * Advisors are created while bean post processors are being registered, so the registry is
+     * resolved on the first authorisation instead. Otherwise the registry, its repository and the
+     * data source would be created early and miss post processing.
+     *
+     * @param authorityRegistry provider of the registry assigning bit positions to authority codes
+     * @return an {@link Advisor} enforcing {@link RequireAuthority}
+     * @see AuthorizationManagerBeforeMethodInterceptor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor requireAuthorityAuthorizationAdvisor(ObjectProvider<AuthorityRegistry> authorityRegistry) {
+        var pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(null, RequireAuthority.class, true))
+                .union(new AnnotationMatchingPointcut(RequireAuthority.class, true));
+        var interceptor = new AuthorizationManagerBeforeMethodInterceptor(pointcut,
+                new AuthoritySetAuthorizationManager(authorityRegistry::getObject));
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
 }
@@ -0,0 +1,57 @@
+package com.onixbyte.helix.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Configuration class for running the application on virtual threads.
+ * <p>
+ * When {@code spring.threads.virtual.enabled} is {@code true} and the application runs on Java 21
+ * or later, Spring Boot serves Tomcat requests and runs {@code @Async} tasks on virtual threads.
+ * Blocking calls to Redis, Postgres and S3 are made on the request thread, so they park a virtual
+ * thread instead of holding a platform thread. The application is built for Java 21 with
+ * {@code -PjavaVersion=21}.
+ * <p>
+ * Components on the request path have been checked for this model:
+ * <ul>
+ *   <li>{@code SecurityContextHolder} keeps its default thread-local strategy, each virtual thread
+ *       has its own context and it is cleared after every request as before.</li>
+ *   <li>HikariCP and the Postgres driver guard their state with {@code ReentrantLock}, so waiting
+ *       for a connection or a result does not pin the carrier thread. As the number of concurrent
+ *       requests is no longer bounded by the Tomcat thread pool, the Hikari pool size becomes the
+ *       limit on concurrent database work.</li>
+ *   <li>Lettuce multiplexes all commands over a shared connection driven by its own event loop, so
+ *       virtual threads only park while awaiting replies.</li>
+ *   <li>Code of this application that blocks while holding a lock uses {@code ReentrantLock}
+ *       rather than {@code synchronized}.</li>
+ *   <li>Password hashing is CPU-bound and stays on the platform threads of
+ *       {@link com.onixbyte.helix.security.password.PasswordHashingExecutor}.</li>
+ * </ul>
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    /**
+     * Report whether virtual threads are actually in use, as Spring Boot silently falls back to
+     * platform threads on Java versions before 21.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void reportThreadingModel() {
+        var javaVersion = Runtime.version().feature();
+        if (javaVersion < 21) {
+            log.warn("Virtual threads are enabled but Java {} does not support them, platform threads are used.", javaVersion);
+        } else {
+            log.info("Requests are handled on virtual threads.");
+        }
+    }
+}
@@ -12,7 +12,5 @@ public class CacheName {
 
     public static final String CAPTCHA = "captcha";
 
-    public static final String CAPTCHA_SETTING = "captcha-setting";
-
-    public static final String AUTH_SETTING = "auth-setting";
+    public static final String DEPARTMENT_TREE = "department-tree";
 }
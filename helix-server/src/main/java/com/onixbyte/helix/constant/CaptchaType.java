@@ -0,0 +1,100 @@
+package com.onixbyte.helix.constant;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Enumeration of the captcha types selectable through {@link SettingName#CAPTCHA_TYPE}.
+ * <p>
+ * Each image type names the format the captcha image is encoded with and the media type it is
+ * served as. Captchas of every type except {@link #SIGNED} and {@link #PROOF_OF_WORK} are stored in
+ * Redis until answered.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public enum CaptchaType {
+
+    /**
+     * JPEG encoded captcha image, the smallest for noisy images at the cost of artefacts.
+     */
+    JPEG(FileFormat.IMAGE_JPEG, "image/jpeg"),
+
+    /**
+     * PNG encoded captcha image, lossless and supported by every Java runtime.
+     */
+    PNG(FileFormat.IMAGE_PNG, "image/png"),
+
+    /**
+     * WebP encoded captcha image.
+     * <p>
+     * The Java runtime ships no WebP encoder, so this type is only honoured when an
+     * {@link javax.imageio.ImageWriter} for WebP is registered, for example by a plugin on the
+     * classpath. Otherwise captchas are encoded as {@link #PNG}.
+     */
+    WEBP(FileFormat.IMAGE_WEBP, "image/webp"),
+
+    /**
+     * JPEG encoded captcha image whose answer is sealed into a signed challenge.
+     * <p>
+     * The challenge is handed to the client in place of the captcha identifier and verified
+     * without Redis, so issuing a captcha of this type writes nothing to Redis.
+     *
+     * @see com.onixbyte.helix.security.captcha.SignedCaptchaManager
+     */
+    SIGNED(FileFormat.IMAGE_JPEG, "image/jpeg"),
+
+    /**
+     * Hashcash-style proof-of-work challenge without an image.
+     * <p>
+     * The client has to find a nonce whose hash together with the challenge has a number of
+     * leading zero bits, which grows with the login failure rate. Issuing such a challenge costs
+     * the server no rendering, and checking an answer costs a single hash.
+     *
+     * @see com.onixbyte.helix.security.captcha.ProofOfWorkDifficulty
+     */
+    PROOF_OF_WORK(null, null);
+
+    private final String format;
+    private final String mediaType;
+
+    CaptchaType(String format, String mediaType) {
+        this.format = format;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Get the informal format name used to look up an {@link javax.imageio.ImageWriter}.
+     *
+     * @return format name, or {@code null} if the type has no image
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Get the media type the captcha image is served as.
+     *
+     * @return media type, or {@code null} if the type has no image
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolve a captcha type from its name, ignoring case.
+     *
+     * @param name         name of the captcha type
+     * @param defaultValue the type to return if the name matches no type
+     * @return the matched captcha type, or {@code defaultValue}
+     */
+    public static CaptchaType of(String name, CaptchaType defaultValue) {
+        if (Objects.isNull(name)) {
+            return defaultValue;
+        }
+        return Arrays.stream(values())
+                .filter((type) -> type.name().equalsIgnoreCase(name.strip()))
+                .findFirst()
+                .orElse(defaultValue);
+    }
+}
@@ -0,0 +1,10 @@
+package com.onixbyte.helix.constant;
+
+public class FileFormat {
+
+    public static final String IMAGE_JPEG = "jpeg";
+
+    public static final String IMAGE_PNG = "png";
+
+    public static final String IMAGE_WEBP = "webp";
+}
@@ -0,0 +1,28 @@
+package com.onixbyte.helix.constant;
+
+/**
+ * Enumeration of the value types of application settings.
+ * <p>
+ * Setting values are stored as strings, and the type tells how a value is to be interpreted. It
+ * mirrors the {@code SettingType} enumeration of the database.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public enum SettingType {
+
+    /**
+     * The value is used as-is.
+     */
+    STRING,
+
+    /**
+     * The value is either {@code true} or {@code false}.
+     */
+    BOOLEAN,
+
+    /**
+     * The value is a decimal integer.
+     */
+    INT
+}
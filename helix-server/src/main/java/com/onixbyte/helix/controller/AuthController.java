@@ -1,10 +1,12 @@
 package com.onixbyte.helix.controller;
 
+import com.onixbyte.helix.domain.web.request.RefreshTokenRequest;
 import com.onixbyte.helix.domain.web.request.UsernamePasswordLoginRequest;
 import com.onixbyte.helix.domain.web.response.LoginSuccessResponse;
 import com.onixbyte.helix.service.AuthService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,6 +34,27 @@ public class AuthController {
         return authService.login(request);
     }
 
+    /**
+     * Exchange a refresh token for a new access token and the next refresh token.
+     *
+     * @param request refresh request
+     * @return detailed user info and authentication tokens
+     */
+    @PostMapping("/refresh")
+    public LoginSuccessResponse refresh(@Validated @RequestBody RefreshTokenRequest request) {
+        return authService.refresh(request);
+    }
+
+    /**
+     * Log out by revoking the token of the current request and its refresh token family.
+     *
+     * @param authorization value of the {@code Authorization} header
+     */
+    @PostMapping("/logout")
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization);
+    }
+
     @GetMapping("/register-enabled")
     public boolean getRegisterEnabled() {
         return authService.getRegisterEnabled();
@@ -0,0 +1,59 @@
+package com.onixbyte.helix.controller;
+
+import com.onixbyte.helix.domain.web.response.CaptchaResponse;
+import com.onixbyte.helix.service.CaptchaService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/captcha")
+public class CaptchaController {
+
+    /**
+     * Response header carrying the identifier of a captcha served as a raw image.
+     */
+    public static final String CAPTCHA_ID_HEADER = "X-Captcha-Id";
+
+    private final CaptchaService captchaService;
+
+    public CaptchaController(CaptchaService captchaService) {
+        this.captchaService = captchaService;
+    }
+
+    /**
+     * Get a captcha with its image embedded as a data URL.
+     *
+     * @return captcha image and identifier, or nothing if captcha is disabled
+     */
+    @GetMapping
+    public CaptchaResponse getCaptcha() {
+        return captchaService.buildCaptcha();
+    }
+
+    /**
+     * Get a captcha image as raw bytes, with the captcha identifier in the
+     * {@value #CAPTCHA_ID_HEADER} header.
+     *
+     * @return captcha image, or {@code 204 No Content} if captcha is disabled
+     */
+    @GetMapping("/image")
+    public ResponseEntity<byte[]> getCaptchaImage() {
+        var issuedCaptcha = captchaService.issueCaptcha();
+        if (Objects.isNull(issuedCaptcha)) {
+            return ResponseEntity.noContent().build();
+        }
+
+        var captcha = issuedCaptcha.captcha();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.parseMediaType(captcha.type().getMediaType()))
+                .header(CAPTCHA_ID_HEADER, issuedCaptcha.uuid())
+                .body(captcha.image());
+    }
+}
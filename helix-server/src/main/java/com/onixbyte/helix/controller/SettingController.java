@@ -1,14 +1,49 @@
 package com.onixbyte.helix.controller;
 
 import com.onixbyte.helix.domain.entity.Setting;
+import com.onixbyte.helix.domain.web.request.UpdateSettingRequest;
+import com.onixbyte.helix.security.authorization.RequireAuthority;
+import com.onixbyte.helix.service.SettingService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
-@RequestMapping
+@RequestMapping("/settings")
 public class SettingController {
 
+    private final SettingService settingService;
+
+    public SettingController(SettingService settingService) {
+        this.settingService = settingService;
+    }
+
+    /**
+     * Get all settings.
+     *
+     * @return all settings
+     */
+    @RequireAuthority("system:setting:write")
+    @GetMapping
+    public List<Setting> getSettings() {
+        return settingService.getSettings();
+    }
 
+    /**
+     * Update the current value of a setting.
+     *
+     * @param name    setting name
+     * @param request new value
+     * @return the updated setting
+     */
+    @RequireAuthority("system:setting:write")
+    @PutMapping("/{name}")
+    public Setting updateSetting(@PathVariable String name, @RequestBody UpdateSettingRequest request) {
+        return settingService.updateSetting(name, request.value());
+    }
 }
@@ -1,13 +1,14 @@
 package com.onixbyte.helix.controller;
 
+import com.onixbyte.helix.domain.common.CursorPage;
 import com.onixbyte.helix.domain.entity.User;
 import com.onixbyte.helix.domain.web.request.AddUserRequest;
 import com.onixbyte.helix.domain.web.request.QueryUserRequest;
+import com.onixbyte.helix.security.authorization.RequireAuthority;
 import com.onixbyte.helix.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,7 +29,7 @@ public class UserController {
      * @param pageSize page size
      * @return paginated user list
      */
-    @PreAuthorize("hasAnyAuthority('system:user:read')")
+    @RequireAuthority("system:user:read")
     @GetMapping
     public Page<User> getUsers(
             @RequestParam(required = false, defaultValue = "1") Integer pageNum,
@@ -39,8 +40,27 @@ public class UserController {
         return userService.getUsers(pageRequest, request);
     }
 
+    /**
+     * Get user list with keyset pagination, which takes the same time for every page however deep
+     * it is. Pass an empty cursor for the first page, then the {@code nextCursor} of each page for
+     * the page after it.
+     *
+     * @param cursor   cursor from the previous page
+     * @param pageSize page size, at most {@link UserService#MAX_PAGE_SIZE}
+     * @return paginated user list
+     */
+    @RequireAuthority("system:user:read")
+    @GetMapping(params = "cursor")
+    public CursorPage<User> getUsers(
+            @RequestParam(required = false, defaultValue = "") String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer pageSize,
+            @ModelAttribute QueryUserRequest request
+    ) {
+        return userService.getUsers(cursor, pageSize, request);
+    }
+
     @PostMapping
-    @PreAuthorize("hasAnyRole('system:user:write')")
+    @RequireAuthority("system:user:write")
     public User addUser(@Validated @RequestBody AddUserRequest request) {
         return userService.addUser(request);
     }
@@ -0,0 +1,75 @@
+package com.onixbyte.helix.domain.common;
+
+import com.onixbyte.helix.exception.BizException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a list ordered by ID, from which a keyset paginated query continues.
+ * <p>
+ * Clients only see the encoded form, which is opaque to them and is passed back unchanged to fetch
+ * the next page. The encoded form carries a version prefix, so the position may later hold more
+ * sort keys without breaking cursors that clients still have.
+ *
+ * @param lastId ID of the last row of the previous page, {@code null} for the first page
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public record Cursor(
+        Long lastId
+) {
+
+    private static final String VERSION = "v1:";
+
+    /**
+     * Cursor pointing at the start of the list.
+     */
+    public static final Cursor START = new Cursor(null);
+
+    /**
+     * Create a cursor continuing after the given ID.
+     *
+     * @param lastId ID of the last row of the previous page
+     * @return the cursor
+     */
+    public static Cursor after(long lastId) {
+        return new Cursor(lastId);
+    }
+
+    /**
+     * Decode a cursor sent by a client. An empty cursor points at the start of the list.
+     *
+     * @param encoded encoded cursor
+     * @return the cursor
+     * @throws BizException if the cursor is not one issued by this application
+     */
+    public static Cursor decode(String encoded) {
+        if (Objects.isNull(encoded) || encoded.isBlank()) {
+            return START;
+        }
+
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(VERSION)) {
+                throw new BizException(HttpStatus.BAD_REQUEST, "无效的分页游标");
+            }
+            return after(Long.parseLong(decoded.substring(VERSION.length())));
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException
+            throw new BizException(HttpStatus.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
+    /**
+     * Encode this cursor for a client.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        var raw = VERSION + (Objects.nonNull(lastId) ? lastId : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.onixbyte.helix.domain.common;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A page of a keyset paginated list.
+ *
+ * @param content    rows in this page
+ * @param size       requested page size
+ * @param nextCursor encoded cursor of the next page, {@code null} if this is the last page
+ * @param <T>        type of the rows
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {
+
+    /**
+     * Check whether there is a page after this one.
+     *
+     * @return {@code true} if there is a next page
+     */
+    public boolean hasNext() {
+        return Objects.nonNull(nextCursor);
+    }
+
+    /**
+     * Convert the rows in this page.
+     *
+     * @param converter row converter
+     * @param <U>       type of the converted rows
+     * @return a page of converted rows with the same cursor
+     */
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(content.stream().<U>map(converter).toList(), size, nextCursor);
+    }
+}
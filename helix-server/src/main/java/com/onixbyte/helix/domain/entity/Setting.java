@@ -0,0 +1,194 @@
+package com.onixbyte.helix.domain.entity;
+
+import com.onixbyte.helix.constant.SettingType;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents a hot-deployable application setting.
+ * <p>
+ * Settings allow selected behaviours of the application to be changed at runtime without
+ * redeployment. Each setting stores its value as a string together with a {@link SettingType}
+ * describing how the value is to be interpreted, and falls back to its default value when no value
+ * has been set.
+ *
+ * @author zihluwang
+ * @version 1.0
+ * @since 1.0
+ */
+public class Setting {
+
+    /**
+     * The unique identifier for the setting.
+     */
+    private Long id;
+
+    /**
+     * The unique name of the setting, see {@link com.onixbyte.helix.constant.SettingName}.
+     */
+    private String name;
+
+    /**
+     * A description of what this setting controls.
+     */
+    private String description;
+
+    /**
+     * The type of the value.
+     */
+    private SettingType type;
+
+    /**
+     * The current value of the setting. It may be null if the default value applies.
+     */
+    private String value;
+
+    /**
+     * The value used when no current value has been set.
+     */
+    private String defaultValue;
+
+    /**
+     * The timestamp when this setting record was created.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * The timestamp when this setting record was last updated.
+     */
+    private LocalDateTime updatedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public SettingType getType() {
+        return type;
+    }
+
+    public void setType(SettingType type) {
+        this.type = type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public void setDefaultValue(String defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Setting() {
+    }
+
+    public Setting(Long id, String name, String description, SettingType type, String value, String defaultValue, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.type = type;
+        this.value = value;
+        this.defaultValue = defaultValue;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Gets the effective value of this setting, which is the current value if set or the
+     * default value otherwise.
+     *
+     * @return the effective value
+     */
+    public String asString() {
+        return Objects.nonNull(value) ? value : defaultValue;
+    }
+
+    /**
+     * Gets the effective value of this setting as a boolean.
+     *
+     * @return the effective value as a boolean
+     */
+    public boolean asBoolean() {
+        return Boolean.parseBoolean(asString());
+    }
+
+    /**
+     * Gets the effective value of this setting as an integer.
+     *
+     * @return the effective value as an integer
+     * @throws NumberFormatException if the value is not a decimal integer
+     */
+    public int asInt() {
+        return Integer.parseInt(asString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        Setting setting = (Setting) o;
+        return Objects.equals(id, setting.id) && Objects.equals(name, setting.name) && Objects.equals(description, setting.description) && type == setting.type && Objects.equals(value, setting.value) && Objects.equals(defaultValue, setting.defaultValue) && Objects.equals(createdAt, setting.createdAt) && Objects.equals(updatedAt, setting.updatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, description, type, value, defaultValue, createdAt, updatedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "Setting{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                ", type=" + type +
+                ", value='" + value + '\'' +
+                ", defaultValue='" + defaultValue + '\'' +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -435,4 +435,16 @@ public class User {
             return new User(id, username, password, fullName, email, countryCode, phoneNumber, avatarUrl, status, departmentId, positionId, createdAt, updatedAt);
         }
     }
+
+    /**
+     * Creates a copy of this user without the password.
+     * <p>
+     * Users returned by the cache may be shared between requests, so the password must be hidden on
+     * a copy instead of on the cached instance.
+     *
+     * @return a copy of this user whose password is {@code null}
+     */
+    public User withoutPassword() {
+        return new User(id, username, null, fullName, email, countryCode, phoneNumber, avatarUrl, status, departmentId, positionId, createdAt, updatedAt);
+    }
 }
@@ -0,0 +1,9 @@
+package com.onixbyte.helix.domain.web.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(
+        @NotBlank(message = "Refresh token cannot be empty.")
+        String refreshToken
+) {
+}
@@ -0,0 +1,11 @@
+package com.onixbyte.helix.domain.web.request;
+
+/**
+ * Request to update the current value of a setting.
+ *
+ * @param value new value, {@code null} restores the default value
+ */
+public record UpdateSettingRequest(
+        String value
+) {
+}
@@ -1,7 +1,17 @@
 package com.onixbyte.helix.domain.web.request;
 
+/**
+ * Username and password login request.
+ *
+ * @param username username
+ * @param password password
+ * @param uuid     identifier of the captcha, or the challenge of a signed captcha
+ * @param captcha  the captcha code entered by the user
+ */
 public record UsernamePasswordLoginRequest(
         String username,
-        String password
+        String password,
+        String uuid,
+        String captcha
 ) {
 }
@@ -0,0 +1,20 @@
+package com.onixbyte.helix.domain.web.response;
+
+import com.onixbyte.helix.constant.CaptchaType;
+
+/**
+ * Captcha response.
+ *
+ * @param captcha    data URL of the captcha image, absent for proof-of-work challenges
+ * @param uuid       identifier of the captcha, to be submitted with the captcha code
+ * @param type       type of the captcha
+ * @param difficulty required number of leading zero bits of a proof-of-work challenge, absent
+ *                   for other types
+ */
+public record CaptchaResponse(
+        String captcha,
+        String uuid,
+        CaptchaType type,
+        Integer difficulty
+) {
+}
@@ -4,6 +4,7 @@ import com.onixbyte.helix.domain.entity.User;
 
 public record LoginSuccessResponse(
         String accessToken,
+        String refreshToken,
         User user
 ) {
 
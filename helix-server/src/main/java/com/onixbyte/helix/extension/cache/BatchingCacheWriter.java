@@ -0,0 +1,163 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A {@link RedisCacheWriter} that can collect the writes of many cache operations and send them
+ * to Redis in a single pipeline.
+ * <p>
+ * Outside of {@link #batch(Runnable)} every call is passed to the delegate writer unchanged. Inside
+ * of it, {@code put} and {@code remove} are queued on the {@link CacheWriteBatch} of the current
+ * thread, and sent over one connection when the batch is flushed. Reads and conditional writes are
+ * never queued, as their results are needed right away.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class BatchingCacheWriter implements RedisCacheWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingCacheWriter.class);
+
+    private final RedisCacheWriter delegate;
+    private final RedisConnectionFactory connectionFactory;
+
+    public BatchingCacheWriter(RedisCacheWriter delegate, RedisConnectionFactory connectionFactory) {
+        this.delegate = delegate;
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Run the given cache operations, and send the writes they make in a single pipeline once they
+     * have returned. Callbacks deferred with {@link CacheWriteBatch#afterFlush(Runnable)} run after
+     * the pipeline, even if it failed, so that other nodes still drop their in-process copies.
+     *
+     * @param operations the cache operations
+     */
+    public void batch(Runnable operations) {
+        var batch = CacheWriteBatch.open();
+        try {
+            operations.run();
+        } finally {
+            batch.close();
+        }
+
+        try {
+            flush(batch);
+        } finally {
+            batch.afterFlushCallbacks().forEach(Runnable::run);
+        }
+    }
+
+    private void flush(CacheWriteBatch batch) {
+        if (batch.commands().isEmpty()) {
+            return;
+        }
+
+        try (var connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                batch.commands().forEach((command) -> command.accept(connection));
+            } finally {
+                connection.closePipeline();
+            }
+        } catch (Exception e) {
+            // entries that were not written are loaded again on the next read
+            log.error("Cannot flush {} cache writes.", batch.commands().size(), e);
+        }
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return delegate.get(name, key, ttl);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return delegate.get(name, key, valueLoader, ttl, timeToIdleEnabled);
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        var batch = CacheWriteBatch.current();
+        if (Objects.isNull(batch)) {
+            delegate.put(name, key, value, ttl);
+            return;
+        }
+
+        batch.add((connection) -> {
+            if (Objects.nonNull(ttl) && !ttl.isZero() && !ttl.isNegative()) {
+                connection.stringCommands().set(key, value, Expiration.from(ttl), RedisStringCommands.SetOption.upsert());
+            } else {
+                connection.stringCommands().set(key, value);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.putIfAbsent(name, key, value, ttl);
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        var batch = CacheWriteBatch.current();
+        if (Objects.isNull(batch)) {
+            delegate.remove(name, key);
+            return;
+        }
+
+        batch.add((connection) -> connection.keyCommands().del(key));
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new BatchingCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), connectionFactory);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+}
@@ -0,0 +1,25 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Extension point for wrapping a {@link Cache} created by the underlying cache manager with
+ * additional behaviour, such as an in-process tier or instrumentation.
+ * <p>
+ * Decorators are applied by {@link DecoratingCacheManager} in registration order, so the first
+ * decorator wraps the raw cache and the last one is what callers see.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface CacheDecorator {
+
+    /**
+     * Decorate the given cache.
+     *
+     * @param cache the cache to decorate
+     * @return the decorated cache, or the given cache itself if this decorator does not apply
+     */
+    Cache decorate(Cache cache);
+}
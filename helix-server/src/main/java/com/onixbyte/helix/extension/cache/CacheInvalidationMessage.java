@@ -0,0 +1,18 @@
+package com.onixbyte.helix.extension.cache;
+
+/**
+ * Message broadcast to other nodes when an entry of a two-tier cache is written or evicted.
+ *
+ * @param nodeId    identifier of the node that changed the entry, used to ignore own messages
+ * @param cacheName name of the affected cache
+ * @param key       the affected key in its string form, {@code null} if the whole cache
+ *                  was cleared
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public record CacheInvalidationMessage(
+        String nodeId,
+        String cacheName,
+        String key
+) {
+}
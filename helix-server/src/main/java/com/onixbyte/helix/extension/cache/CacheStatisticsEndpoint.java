@@ -0,0 +1,158 @@
+package com.onixbyte.helix.extension.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint summarising the metrics recorded by {@link InstrumentedCache} and
+ * {@link com.onixbyte.helix.extension.redis.serializer.MeasuringSerialiser} per cache, exposed at
+ * {@code /actuator/cachestats}.
+ * <p>
+ * The raw meters remain available through the metrics endpoint. This endpoint puts the numbers
+ * needed to tune a cache side by side: hit ratio, operation latencies and value sizes. Caches
+ * without settings in {@link com.onixbyte.helix.properties.CacheProperties} share their value size
+ * metrics under the cache name {@code default}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatisticsEndpoint {
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public CacheStatisticsEndpoint(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Get the statistics of every cache created so far.
+     *
+     * @return statistics keyed by cache name
+     */
+    @ReadOperation
+    public Map<String, CacheStatistics> caches() {
+        var statistics = new TreeMap<String, CacheStatistics>();
+        for (var cacheName : cacheManager.getCacheNames()) {
+            statistics.put(cacheName, statisticsOf(cacheName));
+        }
+        return statistics;
+    }
+
+    /**
+     * Get the statistics of a single cache.
+     *
+     * @param cacheName name of the cache
+     * @return statistics of the cache
+     */
+    @ReadOperation
+    public CacheStatistics cache(@Selector String cacheName) {
+        return statisticsOf(cacheName);
+    }
+
+    private CacheStatistics statisticsOf(String cacheName) {
+        var hits = count("cache.gets", cacheName, "result", "hit");
+        var misses = count("cache.gets", cacheName, "result", "miss");
+        var lookups = hits + misses;
+
+        return new CacheStatistics(
+                hits,
+                misses,
+                lookups > 0 ? hits / lookups : null,
+                latencyOf("cache.operation", cacheName, "get"),
+                latencyOf("cache.operation", cacheName, "put"),
+                latencyOf("cache.load", cacheName, null),
+                sizeOf(cacheName, "write"),
+                sizeOf(cacheName, "read")
+        );
+    }
+
+    private double count(String name, String cacheName, String tagKey, String tagValue) {
+        var counter = meterRegistry.find(name).tags("cache", cacheName, tagKey, tagValue).counter();
+        return Objects.nonNull(counter) ? counter.count() : 0D;
+    }
+
+    private Latency latencyOf(String name, String cacheName, String operation) {
+        var search = meterRegistry.find(name).tag("cache", cacheName);
+        if (Objects.nonNull(operation)) {
+            search = search.tag("operation", operation);
+        }
+        var timer = search.timer();
+        if (Objects.isNull(timer) || timer.count() == 0) {
+            return null;
+        }
+        return new Latency(timer.count(), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+    }
+
+    private Size sizeOf(String cacheName, String operation) {
+        var summary = meterRegistry.find("cache.value.size").tags("cache", cacheName, "operation", operation).summary();
+        if (Objects.isNull(summary) || summary.count() == 0) {
+            return null;
+        }
+        return new Size(summary.count(), summary.mean(), summary.max());
+    }
+
+    /**
+     * Statistics of a single cache. Values that have not been recorded yet are {@code null}.
+     *
+     * @param hits      number of lookups that found an entry
+     * @param misses    number of lookups that found no entry
+     * @param hitRatio  share of lookups that found an entry
+     * @param get       latency of lookups, including loading of missing entries
+     * @param put       latency of writes
+     * @param load      latency of loading missing entries
+     * @param writeSize size of values written to Redis
+     * @param readSize  size of values read from Redis
+     */
+    public record CacheStatistics(
+            double hits,
+            double misses,
+            Double hitRatio,
+            Latency get,
+            Latency put,
+            Latency load,
+            Size writeSize,
+            Size readSize
+    ) {
+    }
+
+    /**
+     * Latency of an operation.
+     *
+     * @param count      number of operations recorded
+     * @param meanMillis mean latency in milliseconds
+     * @param maxMillis  maximum latency in milliseconds within the recent window
+     */
+    public record Latency(
+            long count,
+            double meanMillis,
+            double maxMillis
+    ) {
+    }
+
+    /**
+     * Size of values.
+     *
+     * @param count     number of values recorded
+     * @param meanBytes mean size in bytes
+     * @param maxBytes  maximum size in bytes within the recent window
+     */
+    public record Size(
+            long count,
+            double meanBytes,
+            double maxBytes
+    ) {
+    }
+}
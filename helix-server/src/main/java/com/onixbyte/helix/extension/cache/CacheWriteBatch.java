@@ -0,0 +1,92 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.data.redis.connection.RedisConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Cache writes collected on the current thread, to be sent to Redis in a single pipeline.
+ * <p>
+ * While a batch is open, {@link BatchingCacheWriter} queues its commands here instead of sending
+ * them, and work that must only happen once the writes have reached Redis, such as announcing
+ * invalidations to other nodes, is deferred with {@link #afterFlush(Runnable)}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public final class CacheWriteBatch {
+
+    private static final ThreadLocal<CacheWriteBatch> CURRENT = new ThreadLocal<>();
+
+    private final List<Consumer<RedisConnection>> commands = new ArrayList<>();
+    private final List<Runnable> afterFlushCallbacks = new ArrayList<>();
+
+    private CacheWriteBatch() {
+    }
+
+    /**
+     * Get the batch open on the current thread.
+     *
+     * @return the open batch, or {@code null} if none is open
+     */
+    static CacheWriteBatch current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Open a batch on the current thread.
+     *
+     * @return the opened batch
+     * @throws IllegalStateException if a batch is already open on the current thread
+     */
+    static CacheWriteBatch open() {
+        if (Objects.nonNull(CURRENT.get())) {
+            throw new IllegalStateException("A cache write batch is already open on this thread.");
+        }
+        var batch = new CacheWriteBatch();
+        CURRENT.set(batch);
+        return batch;
+    }
+
+    /**
+     * Run the given callback once the open batch has been flushed, or right away if no batch is
+     * open on the current thread.
+     *
+     * @param callback the callback
+     */
+    static void afterFlush(Runnable callback) {
+        var batch = CURRENT.get();
+        if (Objects.isNull(batch)) {
+            callback.run();
+        } else {
+            batch.afterFlushCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Queue a command to be sent when the batch is flushed.
+     *
+     * @param command the command
+     */
+    void add(Consumer<RedisConnection> command) {
+        commands.add(command);
+    }
+
+    /**
+     * Close this batch, so that later writes on the current thread are sent right away again.
+     */
+    void close() {
+        CURRENT.remove();
+    }
+
+    List<Consumer<RedisConnection>> commands() {
+        return commands;
+    }
+
+    List<Runnable> afterFlushCallbacks() {
+        return afterFlushCallbacks;
+    }
+}
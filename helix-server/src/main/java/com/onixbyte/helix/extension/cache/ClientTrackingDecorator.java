@@ -0,0 +1,208 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onixbyte.helix.properties.CacheProperties;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wraps the caches that enable client tracking in {@link CacheProperties} in a
+ * {@link TrackedCache}, whose in-process copy Redis invalidates through RESP3
+ * {@code CLIENT TRACKING}.
+ * <p>
+ * All tracked caches share one dedicated Lettuce connection with tracking enabled, opened on first
+ * use. When that connection drops, invalidations sent in the meantime are lost, so every tracked
+ * copy is dropped and the connection is opened again with tracking on the next read. If Redis does
+ * not support tracking, which requires Redis 6 and RESP3, or the connection factory is not a
+ * standalone Lettuce one, tracked caches read from Redis directly and keep no in-process copy.
+ * <p>
+ * This decorator must be applied first, as it needs the {@link RedisCache} itself.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class ClientTrackingDecorator implements CacheDecorator {
+
+    private final CacheProperties cacheProperties;
+    private final TrackingConnection trackingConnection;
+
+    public ClientTrackingDecorator(CacheProperties cacheProperties, RedisConnectionFactory connectionFactory) {
+        this.cacheProperties = cacheProperties;
+        this.trackingConnection = new TrackingConnection(connectionFactory);
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        var spec = cacheProperties.specOf(cache.getName());
+        if (!spec.trackingEnabled() || !(cache instanceof RedisCache redisCache)) {
+            return cache;
+        }
+
+        var localCache = Caffeine.newBuilder()
+                .maximumSize(spec.localMaximumSize())
+                .expireAfterWrite(spec.localTtl())
+                .<String, byte[]>build();
+        var trackedCache = new TrackedCache(redisCache, trackingConnection, localCache);
+        trackingConnection.register(trackedCache);
+        return trackedCache;
+    }
+
+    /**
+     * Close the tracking connection.
+     */
+    public void shutdown() {
+        trackingConnection.close();
+    }
+
+    /**
+     * The connection over which tracked caches read, and through which Redis sends invalidations.
+     */
+    public static class TrackingConnection implements RedisConnectionStateListener {
+
+        private static final Logger log = LoggerFactory.getLogger(TrackingConnection.class);
+
+        private static final long RETRY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30L);
+
+        private final RedisConnectionFactory connectionFactory;
+        private final List<TrackedCache> trackedCaches = new CopyOnWriteArrayList<>();
+        private final ReentrantLock connectLock = new ReentrantLock();
+
+        private volatile StatefulRedisConnection<String, byte[]> connection;
+        private volatile boolean listening;
+        private volatile long nextAttemptAt;
+
+        TrackingConnection(RedisConnectionFactory connectionFactory) {
+            this.connectionFactory = connectionFactory;
+        }
+
+        void register(TrackedCache trackedCache) {
+            trackedCaches.add(trackedCache);
+        }
+
+        /**
+         * Check whether reads can be tracked, opening the connection if needed.
+         *
+         * @return {@code true} if reads made through {@link #get(String)} are tracked
+         */
+        boolean isAvailable() {
+            var current = connection;
+            if (Objects.nonNull(current) && current.isOpen()) {
+                return true;
+            }
+            return Objects.nonNull(connect());
+        }
+
+        /**
+         * Read a key and have Redis track it for this connection.
+         *
+         * @param redisKey the key
+         * @return the stored bytes, or {@code null} if the key does not exist
+         */
+        byte[] get(String redisKey) {
+            var current = connection;
+            // dropped since the availability check, the caller loads the entry as if it were missing
+            return Objects.nonNull(current) ? current.sync().get(redisKey) : null;
+        }
+
+        private StatefulRedisConnection<String, byte[]> connect() {
+            if (System.nanoTime() - nextAttemptAt < 0 || !connectLock.tryLock()) {
+                return null;
+            }
+            try {
+                var current = connection;
+                if (Objects.nonNull(current) && current.isOpen()) {
+                    return current;
+                }
+                if (!(connectionFactory instanceof LettuceConnectionFactory lettuceConnectionFactory)
+                        || !(lettuceConnectionFactory.getNativeClient() instanceof io.lettuce.core.RedisClient nativeClient)) {
+                    log.warn("Client tracking requires a standalone Lettuce connection, tracked caches read from Redis directly.");
+                    nextAttemptAt = Long.MAX_VALUE;
+                    return null;
+                }
+
+                if (!listening) {
+                    nativeClient.addListener(this);
+                    listening = true;
+                }
+                evictAll(null);
+
+                var _connection = nativeClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+                try {
+                    _connection.addListener(this::onPushMessage);
+                    _connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+                } catch (Exception e) {
+                    _connection.close();
+                    throw e;
+                }
+                connection = _connection;
+                log.info("Client tracking enabled for {} caches.", trackedCaches.size());
+                return _connection;
+            } catch (Exception e) {
+                nextAttemptAt = System.nanoTime() + RETRY_INTERVAL_NANOS;
+                log.warn("Cannot enable client tracking, tracked caches read from Redis directly.", e);
+                return null;
+            } finally {
+                connectLock.unlock();
+            }
+        }
+
+        private void onPushMessage(PushMessage message) {
+            if (!"invalidate".equals(message.getType())) {
+                return;
+            }
+
+            var content = message.getContent(StringCodec.UTF8::decodeKey);
+            // a null key list means that Redis flushed the whole database
+            if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+                evictAll(null);
+                return;
+            }
+            for (var key : keys) {
+                evictAll(String.valueOf(key));
+            }
+        }
+
+        private void evictAll(String redisKey) {
+            trackedCaches.forEach((trackedCache) -> trackedCache.evictLocal(redisKey));
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> disconnected) {
+            var current = connection;
+            if (Objects.isNull(current) || disconnected != current) {
+                return;
+            }
+
+            // invalidations are lost while disconnected, so tracking starts over on a new connection
+            connection = null;
+            evictAll(null);
+            current.closeAsync();
+        }
+
+        void close() {
+            var current = connection;
+            connection = null;
+            if (Objects.nonNull(current)) {
+                current.close();
+            }
+        }
+    }
+}
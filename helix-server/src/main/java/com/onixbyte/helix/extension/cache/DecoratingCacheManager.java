@@ -0,0 +1,52 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link CacheManager} that delegates cache creation to another manager and applies a chain
+ * of {@link CacheDecorator}s to each cache it returns.
+ * <p>
+ * Decorated caches are created once per cache name and reused afterwards, so decorators may keep
+ * per-cache state.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class DecoratingCacheManager implements CacheManager {
+
+    private final CacheManager targetCacheManager;
+    private final List<CacheDecorator> decorators;
+    private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>();
+
+    public DecoratingCacheManager(CacheManager targetCacheManager, List<CacheDecorator> decorators) {
+        this.targetCacheManager = targetCacheManager;
+        this.decorators = List.copyOf(decorators);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return cacheMap.computeIfAbsent(name, (cacheName) -> {
+            var cache = targetCacheManager.getCache(cacheName);
+            if (Objects.isNull(cache)) {
+                return null;
+            }
+
+            for (var decorator : decorators) {
+                cache = decorator.decorate(cache);
+            }
+            return cache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return targetCacheManager.getCacheNames();
+    }
+}
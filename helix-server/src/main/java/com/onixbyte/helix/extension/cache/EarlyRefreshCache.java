@@ -0,0 +1,229 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Cache} that reloads entries in the background shortly before they expire, using the
+ * probabilistic early expiration of XFetch.
+ * <p>
+ * On every hit through {@link #get(Object, Callable)} an entry is refreshed if
+ * {@code now - delta * beta * ln(random) >= expiry}, where {@code delta} is the average time the
+ * loader of this cache takes and {@code beta} scales how eagerly entries are refreshed. The closer
+ * an entry is to its expiry and the more expensive it is to load, the more likely a hit triggers a
+ * refresh, so hot entries are reloaded before they expire while cold ones simply expire.
+ * <p>
+ * This cache must wrap the in-process tier, so that hits served from it are counted as well, and
+ * so that a refreshed entry is written through both tiers and other nodes drop their copy.
+ * <p>
+ * The expiry of an entry is known when this node loads it, and is otherwise read from Redis once
+ * when the entry is first seen. Before reloading, the expiry is read again, and the refresh is
+ * skipped if another node has refreshed the entry in the meantime. Refreshes run on the given
+ * executor and are skipped if the executor is saturated. The caller is always served the current
+ * value.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class EarlyRefreshCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(EarlyRefreshCache.class);
+
+    /**
+     * Weight of the latest load time in the moving average of load times.
+     */
+    private static final double LOAD_TIME_WEIGHT = 0.2D;
+
+    /**
+     * How much later than known an entry has to expire to count as refreshed by another node.
+     */
+    private static final long REFRESHED_ELSEWHERE_MILLIS = 1_000L;
+
+    private final Cache delegate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final double beta;
+    private final Executor executor;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> expiries;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private volatile double averageLoadMillis = 10D;
+
+    /**
+     * Create an early refreshing cache.
+     *
+     * @param delegate      the cache to refresh entries of
+     * @param redisTemplate template used to read the expiry of entries loaded by other nodes
+     * @param beta          eagerness of early refreshes, {@code 1.0} is the value recommended by
+     *                      XFetch
+     * @param executor      executor running the refreshes
+     * @param expiries      expiry time in epoch milliseconds of the entries seen by this node
+     */
+    public EarlyRefreshCache(
+            Cache delegate,
+            RedisTemplate<String, Object> redisTemplate,
+            double beta,
+            Executor executor,
+            com.github.benmanes.caffeine.cache.Cache<String, Long> expiries
+    ) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.beta = beta;
+        this.executor = executor;
+        this.expiries = expiries;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var valueWrapper = delegate.get(key);
+        if (Objects.isNull(valueWrapper)) {
+            return delegate.get(key, timed(key, valueLoader));
+        }
+
+        if (shouldRefresh(key)) {
+            refresh(key, valueLoader);
+        }
+
+        @SuppressWarnings("unchecked")
+        var result = (T) valueWrapper.get();
+        return result;
+    }
+
+    private boolean shouldRefresh(Object key) {
+        var expiry = expiries.get(String.valueOf(key), (ignored) -> readExpiry(key));
+        if (Objects.isNull(expiry) || expiry < 0) {
+            return false;
+        }
+
+        // ln(random) is negative, so the right-hand side moves the current time forward
+        var now = System.currentTimeMillis();
+        return now - averageLoadMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble()) >= expiry;
+    }
+
+    private void refresh(Object key, Callable<?> valueLoader) {
+        var refreshKey = String.valueOf(key);
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    var knownExpiry = expiries.getIfPresent(refreshKey);
+                    var currentExpiry = readExpiry(key);
+                    if (Objects.nonNull(knownExpiry) && currentExpiry - knownExpiry > REFRESHED_ELSEWHERE_MILLIS) {
+                        expiries.put(refreshKey, currentExpiry);
+                        return;
+                    }
+
+                    var value = timed(key, valueLoader).call();
+                    if (Objects.nonNull(value)) {
+                        delegate.put(key, value);
+                    }
+                } catch (Exception e) {
+                    log.warn("Cannot refresh cache entry {}::{}.", getName(), key, e);
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the entry expires and is loaded on demand instead
+            refreshing.remove(refreshKey);
+        }
+    }
+
+    private <T> Callable<T> timed(Object key, Callable<T> valueLoader) {
+        return () -> {
+            var start = System.nanoTime();
+            var value = valueLoader.call();
+            var loadMillis = (System.nanoTime() - start) / 1_000_000D;
+            averageLoadMillis = averageLoadMillis * (1 - LOAD_TIME_WEIGHT) + loadMillis * LOAD_TIME_WEIGHT;
+            // the fresh entry's expiry is read again when it is next hit
+            expiries.invalidate(String.valueOf(key));
+            return value;
+        };
+    }
+
+    private Long readExpiry(Object key) {
+        try {
+            var ttl = redisTemplate.getExpire(getName() + "::" + key, TimeUnit.MILLISECONDS);
+            if (Objects.isNull(ttl) || ttl < 0) {
+                return -1L;
+            }
+            return System.currentTimeMillis() + ttl;
+        } catch (Exception e) {
+            log.warn("Cannot read the expiry of cache entry {}::{}.", getName(), key, e);
+            return -1L;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        expiries.invalidate(String.valueOf(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existingValue = delegate.putIfAbsent(key, value);
+        expiries.invalidate(String.valueOf(key));
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        expiries.invalidate(String.valueOf(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var present = delegate.evictIfPresent(key);
+        expiries.invalidate(String.valueOf(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        expiries.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        var present = delegate.invalidate();
+        expiries.invalidateAll();
+        return present;
+    }
+}
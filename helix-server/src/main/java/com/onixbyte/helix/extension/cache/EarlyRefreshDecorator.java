@@ -0,0 +1,66 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onixbyte.helix.properties.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps the caches that configure an early refresh in {@link CacheProperties} in an
+ * {@link EarlyRefreshCache}.
+ * <p>
+ * All early refreshes share a small executor with a bounded queue. Refreshes that do not fit are
+ * dropped, and the affected entries are loaded on demand when they expire.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class EarlyRefreshDecorator implements CacheDecorator {
+
+    private static final int MAXIMUM_TRACKED_ENTRIES = 100_000;
+
+    private final CacheProperties cacheProperties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ThreadPoolExecutor executor;
+
+    public EarlyRefreshDecorator(CacheProperties cacheProperties, RedisTemplate<String, Object> redisTemplate) {
+        this.cacheProperties = cacheProperties;
+        this.redisTemplate = redisTemplate;
+
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(2, 2, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(256),
+                (runnable) -> {
+                    var thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        var spec = cacheProperties.specOf(cache.getName());
+        if (!spec.earlyRefreshEnabled()) {
+            return cache;
+        }
+
+        var expiries = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_TRACKED_ENTRIES)
+                .expireAfterWrite(spec.ttl())
+                .<String, Long>build();
+        return new EarlyRefreshCache(cache, redisTemplate, spec.earlyRefreshBeta(), executor, expiries);
+    }
+
+    /**
+     * Stop the refresh executor, dropping queued refreshes.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
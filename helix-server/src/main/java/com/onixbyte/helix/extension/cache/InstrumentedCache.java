@@ -0,0 +1,159 @@
+package com.onixbyte.helix.extension.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Cache} that records hits, misses and the latency of every operation in Micrometer.
+ * <p>
+ * All meters are tagged with the cache name. Hits and misses are counted as {@code cache.gets}
+ * with a {@code result} tag, following Micrometer's cache metrics, so that a hit of the in-process
+ * tier and a hit of Redis both count as a hit. The latency of each operation is recorded as
+ * {@code cache.operation} with an {@code operation} tag, and the time spent loading missing entries
+ * as {@code cache.load}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Timer getTimer;
+    private final Timer putTimer;
+    private final Timer evictTimer;
+    private final Timer loadTimer;
+
+    public InstrumentedCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+
+        var cacheName = delegate.getName();
+        this.hits = Counter.builder("cache.gets")
+                .description("Number of cache lookups")
+                .tags("cache", cacheName, "result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .description("Number of cache lookups")
+                .tags("cache", cacheName, "result", "miss")
+                .register(meterRegistry);
+        this.puts = Counter.builder("cache.puts")
+                .description("Number of entries written to the cache")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Number of entries evicted from the cache")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.getTimer = operationTimer(meterRegistry, cacheName, "get");
+        this.putTimer = operationTimer(meterRegistry, cacheName, "put");
+        this.evictTimer = operationTimer(meterRegistry, cacheName, "evict");
+        this.loadTimer = Timer.builder("cache.load")
+                .description("Time spent loading missing entries")
+                .tag("cache", cacheName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String cacheName, String operation) {
+        return Timer.builder("cache.operation")
+                .description("Latency of cache operations")
+                .tags("cache", cacheName, "operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        var valueWrapper = getTimer.record(() -> delegate.get(key));
+        (Objects.nonNull(valueWrapper) ? hits : misses).increment();
+        return valueWrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        var value = getTimer.record(() -> delegate.get(key, type));
+        (Objects.nonNull(value) ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var loaded = new AtomicBoolean();
+        var startedAt = System.nanoTime();
+        try {
+            return delegate.get(key, () -> {
+                loaded.set(true);
+                var loadStartedAt = System.nanoTime();
+                try {
+                    return valueLoader.call();
+                } finally {
+                    loadTimer.record(System.nanoTime() - loadStartedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } finally {
+            getTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            (loaded.get() ? misses : hits).increment();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putTimer.record(() -> delegate.put(key, value));
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existingValue = putTimer.record(() -> delegate.putIfAbsent(key, value));
+        if (Objects.isNull(existingValue)) {
+            puts.increment();
+        }
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictTimer.record(() -> delegate.evict(key));
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var present = evictTimer.record(() -> delegate.evictIfPresent(key));
+        if (present) {
+            evictions.increment();
+        }
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        evictTimer.record(delegate::clear);
+    }
+
+    @Override
+    public boolean invalidate() {
+        return evictTimer.record(delegate::invalidate);
+    }
+}
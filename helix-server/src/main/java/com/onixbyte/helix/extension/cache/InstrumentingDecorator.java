@@ -0,0 +1,28 @@
+package com.onixbyte.helix.extension.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+/**
+ * Wraps every cache in an {@link InstrumentedCache}.
+ * <p>
+ * This decorator must be applied after {@link NearCacheDecorator}, so that hits of the in-process
+ * tier are counted as hits, and before {@link TransactionAwareDecorator}, so that writes deferred
+ * until commit are counted when they are applied.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class InstrumentingDecorator implements CacheDecorator {
+
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentingDecorator(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        return new InstrumentedCache(cache, meterRegistry);
+    }
+}
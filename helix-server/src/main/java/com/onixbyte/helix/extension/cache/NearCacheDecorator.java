@@ -0,0 +1,112 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import com.onixbyte.helix.properties.CacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Places an in-process tier in front of every cache that enables one in {@link CacheProperties},
+ * and keeps the in-process tiers of all nodes consistent through a Redis pub/sub channel.
+ * <p>
+ * Whenever a {@link TwoTierCache} writes or evicts an entry, a {@link CacheInvalidationMessage} is
+ * published. Every other node receives it through {@link #onMessage(Message, byte[])} and drops
+ * its local copy, so the next read goes to Redis and picks up the new value.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class NearCacheDecorator implements CacheDecorator, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheDecorator.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    private final CacheProperties cacheProperties;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public NearCacheDecorator(CacheProperties cacheProperties, RedisTemplate<String, Object> redisTemplate) {
+        this.cacheProperties = cacheProperties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        var cacheName = cache.getName();
+        var spec = cacheProperties.specOf(cacheName);
+        if (!spec.localEnabled()) {
+            return cache;
+        }
+
+        var localCache = Caffeine.newBuilder()
+                .maximumSize(spec.localMaximumSize())
+                .expireAfterWrite(spec.localTtl())
+                .build();
+
+        // inside a write batch, other nodes are told only once the batch has reached Redis
+        var twoTierCache = new TwoTierCache(cache, localCache,
+                (key) -> CacheWriteBatch.afterFlush(() -> publish(cacheName, key)));
+        twoTierCaches.put(cacheName, twoTierCache);
+        return twoTierCache;
+    }
+
+    /**
+     * Write an entry that has just been read from the database, such as when warming up caches,
+     * without telling other nodes to drop their in-process copy.
+     * <p>
+     * For caches with an in-process tier, the entry is written to Redis and to the in-process tier
+     * of this node. Announcing it would make every other node drop a copy that is most likely
+     * still current, which during a rolling deploy evicts the hottest entries of every running
+     * node. Other caches receive a plain {@link Cache#put(Object, Object)}.
+     *
+     * @param cache the cache as returned by the cache manager
+     * @param key   the cache key
+     * @param value the value, must not be {@code null}
+     */
+    public void prime(Cache cache, Object key, Object value) {
+        var twoTierCache = twoTierCaches.get(cache.getName());
+        if (Objects.isNull(twoTierCache)) {
+            cache.put(key, value);
+            return;
+        }
+        twoTierCache.prime(key, value);
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(cacheProperties.invalidationChannel(),
+                    new CacheInvalidationMessage(nodeId, cacheName, key));
+        } catch (Exception e) {
+            // Other nodes fall back to the local TTL, so a lost message only delays consistency.
+            log.error("Cannot publish invalidation of {}::{}.", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(JacksonSerialiser.INSTANCE.deserialize(message.getBody()) instanceof CacheInvalidationMessage invalidation)) {
+            log.warn("Unrecognised message received on channel {}.", cacheProperties.invalidationChannel());
+            return;
+        }
+
+        if (Objects.equals(nodeId, invalidation.nodeId())) {
+            return;
+        }
+
+        var twoTierCache = twoTierCaches.get(invalidation.cacheName());
+        if (Objects.nonNull(twoTierCache)) {
+            twoTierCache.evictLocal(invalidation.key());
+        }
+    }
+}
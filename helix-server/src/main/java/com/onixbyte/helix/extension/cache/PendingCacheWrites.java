@@ -0,0 +1,88 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Cache writes recorded during a transaction, applied in a single batch after the transaction
+ * commits and discarded if it rolls back.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class PendingCacheWrites implements TransactionSynchronization {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingCacheWrites.class);
+
+    private final BatchingCacheWriter cacheWriter;
+    private final Object resourceKey;
+    private final List<Runnable> writes = new ArrayList<>();
+
+    private PendingCacheWrites(BatchingCacheWriter cacheWriter, Object resourceKey) {
+        this.cacheWriter = cacheWriter;
+        this.resourceKey = resourceKey;
+    }
+
+    /**
+     * Record a write to apply after commit.
+     *
+     * @param write the write
+     */
+    void add(Runnable write) {
+        writes.add(write);
+    }
+
+    @Override
+    public void afterCommit() {
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            cacheWriter.batch(() -> writes.forEach(Runnable::run));
+        } catch (Exception e) {
+            // the transaction has committed already, stale entries expire with their time to live
+            log.error("Cannot apply {} cache writes after commit.", writes.size(), e);
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+    }
+
+    /**
+     * Looks up the pending writes of the current transaction, creating and registering them on
+     * first use.
+     */
+    public static class Registry {
+
+        private final BatchingCacheWriter cacheWriter;
+
+        public Registry(BatchingCacheWriter cacheWriter) {
+            this.cacheWriter = cacheWriter;
+        }
+
+        /**
+         * Get the pending writes of the current transaction. Must only be called while transaction
+         * synchronisation is active.
+         *
+         * @return pending writes of the current transaction
+         */
+        PendingCacheWrites current() {
+            var pendingCacheWrites = (PendingCacheWrites) TransactionSynchronizationManager.getResource(this);
+            if (Objects.isNull(pendingCacheWrites)) {
+                pendingCacheWrites = new PendingCacheWrites(cacheWriter, this);
+                TransactionSynchronizationManager.bindResource(this, pendingCacheWrites);
+                TransactionSynchronizationManager.registerSynchronization(pendingCacheWrites);
+            }
+            return pendingCacheWrites;
+        }
+    }
+}
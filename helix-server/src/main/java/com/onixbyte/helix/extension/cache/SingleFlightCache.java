@@ -0,0 +1,237 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link Cache} that lets only one caller load a missing entry, so that the expiry of a hot entry
+ * does not send every concurrent request to the database.
+ * <p>
+ * Coalescing applies to {@link #get(Object, Callable)}, which Spring uses for
+ * {@code @Cacheable(sync = true)}. Concurrent misses on the same key within this node wait for the
+ * first caller to finish loading. If a lease time is configured, the first caller also takes a
+ * lease on the key in Redis with {@code SET NX PX}, so that at most one node runs the loader at a
+ * time. Callers on other nodes poll the cache until the value appears. If the lease is released
+ * without a value, because the loader found nothing or failed, the next poll takes over the lease
+ * and loads the entry at once instead of waiting for the lease time to pass.
+ * <p>
+ * {@code null} results are returned to every waiting caller but not written to the cache, which is
+ * what {@code unless = "#result == null"} does for caches without coalescing.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class SingleFlightCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 25L;
+
+    /**
+     * Deletes a lease only if it is still held by the caller, so a caller that outlived its lease
+     * cannot release the lease of another node.
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final Cache delegate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration leaseTime;
+    private final String leaseOwner = UUID.randomUUID().toString();
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Create a single-flight cache.
+     *
+     * @param delegate      the cache to load entries into
+     * @param redisTemplate template used to take leases
+     * @param leaseTime     how long a lease is held, {@link Duration#ZERO} coalesces misses within
+     *                      this node only
+     */
+    public SingleFlightCache(Cache delegate, RedisTemplate<String, Object> redisTemplate, Duration leaseTime) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.leaseTime = leaseTime;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var valueWrapper = delegate.get(key);
+        if (Objects.nonNull(valueWrapper)) {
+            @SuppressWarnings("unchecked")
+            var result = (T) valueWrapper.get();
+            return result;
+        }
+
+        var future = new CompletableFuture<Object>();
+        var existingFuture = inFlight.putIfAbsent(key, future);
+        if (Objects.nonNull(existingFuture)) {
+            return await(existingFuture);
+        }
+
+        try {
+            var value = load(key, valueLoader);
+            future.complete(value);
+            @SuppressWarnings("unchecked")
+            var result = (T) value;
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        if (leaseTime.isZero() || leaseTime.isNegative()) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        var leaseKey = "cache-lease::" + getName() + "::" + key;
+        if (acquireLease(leaseKey)) {
+            try {
+                return loadAndPut(key, valueLoader);
+            } finally {
+                releaseLease(leaseKey);
+            }
+        }
+
+        // another node is loading the entry, wait for it to show up
+        var deadline = System.nanoTime() + leaseTime.toNanos();
+        try {
+            while (System.nanoTime() - deadline < 0) {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+                var valueWrapper = delegate.get(key);
+                if (Objects.nonNull(valueWrapper)) {
+                    return valueWrapper.get();
+                }
+
+                // a released lease without a value means the loader found nothing or failed
+                if (acquireLease(leaseKey)) {
+                    try {
+                        // the value may have been written between the read above and the release
+                        valueWrapper = delegate.get(key);
+                        return Objects.nonNull(valueWrapper) ? valueWrapper.get() : loadAndPut(key, valueLoader);
+                    } finally {
+                        releaseLease(leaseKey);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return loadAndPut(key, valueLoader);
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        if (Objects.nonNull(value)) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+
+    private boolean acquireLease(String leaseKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, leaseOwner, leaseTime));
+        } catch (Exception e) {
+            log.warn("Cannot acquire cache lease {}, loading without it.", leaseKey, e);
+            return true;
+        }
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), leaseOwner);
+        } catch (Exception e) {
+            log.warn("Cannot release cache lease {}, it expires by itself.", leaseKey, e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<Object> future) {
+        try {
+            @SuppressWarnings("unchecked")
+            var result = (T) future.join();
+            return result;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
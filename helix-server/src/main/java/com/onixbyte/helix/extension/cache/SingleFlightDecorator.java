@@ -0,0 +1,32 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.onixbyte.helix.properties.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Wraps every cache in a {@link SingleFlightCache}, taking leases in Redis for the caches that
+ * configure a single-flight lease in {@link CacheProperties}.
+ * <p>
+ * This decorator must be applied before {@link NearCacheDecorator}, so that the in-process tier is
+ * consulted before a miss is coalesced.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class SingleFlightDecorator implements CacheDecorator {
+
+    private final CacheProperties cacheProperties;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public SingleFlightDecorator(CacheProperties cacheProperties, RedisTemplate<String, Object> redisTemplate) {
+        this.cacheProperties = cacheProperties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        var spec = cacheProperties.specOf(cache.getName());
+        return new SingleFlightCache(cache, redisTemplate, spec.singleFlightLease());
+    }
+}
@@ -0,0 +1,172 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Cache} that serves reads of a {@link RedisCache} from an in-process copy which Redis
+ * invalidates itself, through server-assisted client-side caching.
+ * <p>
+ * Reads are answered from the in-process copy when possible, and otherwise read from Redis over
+ * the tracking connection of {@link ClientTrackingDecorator}. Redis remembers every key read over
+ * that connection and sends an invalidation as soon as the key is written, evicted or expires,
+ * whichever node made the change. Writes and evictions go straight to the delegate, and the
+ * in-process copy is dropped once Redis reports the change.
+ * <p>
+ * Values are kept in the in-process copy as the bytes stored in Redis, and deserialised on every
+ * read, so callers never share an instance. An invalidation may be handled after Redis answered a
+ * read but before the reply is stored in the in-process copy. Reads therefore count invalidations,
+ * and drop the copy they stored if one was handled while they were in flight.
+ * <p>
+ * While the tracking connection is unavailable, reads go to the delegate and nothing is kept
+ * in-process.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class TrackedCache implements Cache {
+
+    private final RedisCache delegate;
+    private final ClientTrackingDecorator.TrackingConnection trackingConnection;
+    private final com.github.benmanes.caffeine.cache.Cache<String, byte[]> localCache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TrackedCache(
+            RedisCache delegate,
+            ClientTrackingDecorator.TrackingConnection trackingConnection,
+            com.github.benmanes.caffeine.cache.Cache<String, byte[]> localCache
+    ) {
+        this.delegate = delegate;
+        this.trackingConnection = trackingConnection;
+        this.localCache = localCache;
+    }
+
+    /**
+     * Drop a single entry from the in-process copy.
+     *
+     * @param redisKey the Redis key of the entry, {@code null} drops every entry
+     */
+    void evictLocal(String redisKey) {
+        invalidations.incrementAndGet();
+        if (Objects.isNull(redisKey)) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(redisKey);
+        }
+    }
+
+    private String redisKey(Object key) {
+        var configuration = delegate.getCacheConfiguration();
+        var convertedKey = configuration.getConversionService().convert(key, String.class);
+        return configuration.getKeyPrefixFor(getName()) + convertedKey;
+    }
+
+    private byte[] read(Object key) {
+        var redisKey = redisKey(key);
+        var bytes = localCache.getIfPresent(redisKey);
+        if (Objects.nonNull(bytes)) {
+            return bytes;
+        }
+
+        var seenInvalidations = invalidations.get();
+        bytes = trackingConnection.get(redisKey);
+        if (Objects.nonNull(bytes)) {
+            localCache.put(redisKey, bytes);
+            // the invalidation may have been handled before the copy was stored
+            if (invalidations.get() != seenInvalidations) {
+                localCache.invalidate(redisKey);
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!trackingConnection.isAvailable()) {
+            return delegate.get(key);
+        }
+
+        var bytes = read(key);
+        if (Objects.isNull(bytes)) {
+            return null;
+        }
+
+        var value = delegate.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+        return new SimpleValueWrapper(value instanceof NullValue ? null : value);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        var valueWrapper = get(key);
+        if (Objects.isNull(valueWrapper) || Objects.isNull(valueWrapper.get())) {
+            return null;
+        }
+
+        var value = valueWrapper.get();
+        if (Objects.nonNull(type) && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        @SuppressWarnings("unchecked")
+        var result = (T) value;
+        return result;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var valueWrapper = get(key);
+        if (Objects.nonNull(valueWrapper)) {
+            @SuppressWarnings("unchecked")
+            var result = (T) valueWrapper.get();
+            return result;
+        }
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
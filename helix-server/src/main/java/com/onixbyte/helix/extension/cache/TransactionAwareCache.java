@@ -0,0 +1,100 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A {@link Cache} that defers writes made inside a transaction until the transaction commits.
+ * <p>
+ * {@code put}, {@code evict} and {@code clear} called while a transaction is active are recorded
+ * on the {@link PendingCacheWrites} of that transaction. After commit they are applied to the
+ * delegate in the order they were made, with their Redis writes sent in a single pipeline. On
+ * rollback they are discarded, so no cache entry refers to data that was never committed. Outside
+ * of a transaction every call is passed to the delegate right away.
+ * <p>
+ * Like Spring's own {@code TransactionAwareCacheDecorator}, operations whose result is needed
+ * right away, such as {@code putIfAbsent}, {@code evictIfPresent} and {@code invalidate}, are
+ * never deferred.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class TransactionAwareCache implements Cache {
+
+    private final Cache delegate;
+    private final PendingCacheWrites.Registry pendingCacheWrites;
+
+    public TransactionAwareCache(Cache delegate, PendingCacheWrites.Registry pendingCacheWrites) {
+        this.delegate = delegate;
+        this.pendingCacheWrites = pendingCacheWrites;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingCacheWrites.current().add(() -> delegate.put(key, value));
+        } else {
+            delegate.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingCacheWrites.current().add(() -> delegate.evict(key));
+        } else {
+            delegate.evict(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingCacheWrites.current().add(delegate::clear);
+        } else {
+            delegate.clear();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,27 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Wraps every cache in a {@link TransactionAwareCache}, so that writes made inside a transaction
+ * are applied after commit, in a single pipeline per transaction.
+ * <p>
+ * This decorator must be applied last, so that deferred writes still pass through the in-process
+ * tier and every other decorator when they are applied.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class TransactionAwareDecorator implements CacheDecorator {
+
+    private final PendingCacheWrites.Registry pendingCacheWrites;
+
+    public TransactionAwareDecorator(BatchingCacheWriter cacheWriter) {
+        this.pendingCacheWrites = new PendingCacheWrites.Registry(cacheWriter);
+    }
+
+    @Override
+    public Cache decorate(Cache cache) {
+        return new TransactionAwareCache(cache, pendingCacheWrites);
+    }
+}
@@ -0,0 +1,221 @@
+package com.onixbyte.helix.extension.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Cache} that keeps a bounded in-process copy of entries in front of a remote cache.
+ * <p>
+ * Reads are served from the in-process tier when possible and fall through to the remote cache
+ * otherwise, copying the remote value into the in-process tier on the way back. Every write or
+ * eviction is applied to both tiers and then announced through the invalidation publisher so that
+ * other nodes drop their in-process copy.
+ * <p>
+ * An invalidation may arrive after a value was read from the remote cache but before it is copied
+ * into the in-process tier. Reads therefore count the changes made to the in-process tier, and
+ * drop the copy they stored if one was made while they were in flight, as {@link TrackedCache}
+ * does.
+ * <p>
+ * Values in the in-process tier are shared by reference between callers, so they must be treated
+ * as read-only. {@code null} values are never kept in the in-process tier.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache remoteCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final Consumer<String> invalidationPublisher;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Create a two-tier cache.
+     *
+     * @param remoteCache           the shared remote cache
+     * @param localCache            the in-process tier
+     * @param invalidationPublisher callback announcing an invalidated key to other nodes,
+     *                              {@code null} means that the whole cache was cleared
+     */
+    public TwoTierCache(
+            Cache remoteCache,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+            Consumer<String> invalidationPublisher
+    ) {
+        this.remoteCache = remoteCache;
+        this.localCache = localCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    /**
+     * Convert a cache key to the key used by the in-process tier. Invalidation messages carry keys
+     * as strings, so the in-process tier is keyed the same way.
+     *
+     * @param key the cache key
+     * @return the in-process key
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Drop a single entry from the in-process tier without touching the remote cache.
+     *
+     * @param localKey the in-process key, {@code null} drops every entry
+     */
+    void evictLocal(String localKey) {
+        invalidations.incrementAndGet();
+        if (Objects.isNull(localKey)) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    /**
+     * Write an entry that has just been read from the source of truth to both tiers, without
+     * announcing it. Unlike {@link #put(Object, Object)}, other nodes keep their in-process copy,
+     * which is left to expire by itself.
+     *
+     * @param key   the cache key
+     * @param value the value, must not be {@code null}
+     */
+    void prime(Object key, Object value) {
+        remoteCache.put(key, value);
+        invalidations.incrementAndGet();
+        localCache.put(localKey(key), value);
+    }
+
+    @Override
+    public String getName() {
+        return remoteCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        var localKey = localKey(key);
+        var localValue = localCache.getIfPresent(localKey);
+        if (Objects.nonNull(localValue)) {
+            return new SimpleValueWrapper(localValue);
+        }
+
+        var seenInvalidations = invalidations.get();
+        var valueWrapper = remoteCache.get(key);
+        if (Objects.nonNull(valueWrapper) && Objects.nonNull(valueWrapper.get())) {
+            storeLocal(localKey, valueWrapper.get(), seenInvalidations);
+        }
+        return valueWrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        var valueWrapper = get(key);
+        if (Objects.isNull(valueWrapper) || Objects.isNull(valueWrapper.get())) {
+            return null;
+        }
+
+        var value = valueWrapper.get();
+        if (Objects.nonNull(type) && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        @SuppressWarnings("unchecked")
+        var result = (T) value;
+        return result;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var localKey = localKey(key);
+        var localValue = localCache.getIfPresent(localKey);
+        if (Objects.nonNull(localValue)) {
+            @SuppressWarnings("unchecked")
+            var result = (T) localValue;
+            return result;
+        }
+
+        var seenInvalidations = invalidations.get();
+        var value = remoteCache.get(key, valueLoader);
+        if (Objects.nonNull(value)) {
+            storeLocal(localKey, value, seenInvalidations);
+        }
+        return value;
+    }
+
+    private void storeLocal(String localKey, Object value, long seenInvalidations) {
+        localCache.put(localKey, value);
+        // the entry may have been changed or invalidated before the copy was stored
+        if (invalidations.get() != seenInvalidations) {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        var localKey = localKey(key);
+        invalidations.incrementAndGet();
+        if (Objects.nonNull(value)) {
+            localCache.put(localKey, value);
+        } else {
+            localCache.invalidate(localKey);
+        }
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var existingValue = remoteCache.putIfAbsent(key, value);
+        var localKey = localKey(key);
+        invalidations.incrementAndGet();
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(localKey);
+        return existingValue;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        var localKey = localKey(key);
+        invalidations.incrementAndGet();
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var present = remoteCache.evictIfPresent(key);
+        var localKey = localKey(key);
+        invalidations.incrementAndGet();
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        var present = remoteCache.invalidate();
+        invalidations.incrementAndGet();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(null);
+        return present;
+    }
+}
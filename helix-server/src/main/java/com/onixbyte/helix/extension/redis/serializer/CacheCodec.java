@@ -0,0 +1,24 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+/**
+ * Encodings that cache values can be written to Redis with.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ * @see CacheValueSerialiser
+ */
+public enum CacheCodec {
+
+    /**
+     * JSON with class names, as written by {@link JacksonSerialiser}. Readable with
+     * {@code redis-cli}, but the largest and slowest to decode.
+     */
+    JSON,
+
+    /**
+     * Smile, the binary form of the same data model, written by {@link SmileSerialiser}. Property
+     * and class names are written once per value and referenced afterwards, and numbers and dates
+     * are stored in binary, so values are smaller and decode faster than JSON.
+     */
+    SMILE
+}
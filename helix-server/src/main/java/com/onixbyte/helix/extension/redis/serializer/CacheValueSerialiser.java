@@ -0,0 +1,81 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Serialiser of cache values that writes with one {@link CacheCodec} and reads every codec.
+ * <p>
+ * Values written as Smile start with the header byte {@code 0xC1} followed by a format version.
+ * {@code 0xC1} never starts a UTF-8 encoded JSON document, so values without the header are read
+ * as the JSON written by {@link JacksonSerialiser}. Entries written before a cache switched codec,
+ * or by a node that has not been upgraded yet, therefore stay readable until they expire, in
+ * either direction.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class CacheValueSerialiser implements RedisSerializer<Object> {
+
+    /**
+     * Header byte marking a value written as Smile.
+     */
+    static final byte SMILE_HEADER = (byte) 0xC1;
+
+    /**
+     * Current version of the Smile encoding.
+     */
+    static final byte SMILE_VERSION = 1;
+
+    private static final CacheValueSerialiser JSON = new CacheValueSerialiser(CacheCodec.JSON);
+    private static final CacheValueSerialiser SMILE = new CacheValueSerialiser(CacheCodec.SMILE);
+
+    private final CacheCodec codec;
+
+    private CacheValueSerialiser(CacheCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Get the serialiser writing with the given codec.
+     *
+     * @param codec codec to write with
+     * @return the serialiser
+     */
+    public static CacheValueSerialiser of(CacheCodec codec) {
+        return codec == CacheCodec.SMILE ? SMILE : JSON;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (codec == CacheCodec.JSON) {
+            return JacksonSerialiser.INSTANCE.serialize(value);
+        }
+
+        var body = SmileSerialiser.INSTANCE.serialize(value);
+        var bytes = new byte[body.length + 2];
+        bytes[0] = SMILE_HEADER;
+        bytes[1] = SMILE_VERSION;
+        System.arraycopy(body, 0, bytes, 2, body.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+
+        if (bytes[0] != SMILE_HEADER) {
+            return JacksonSerialiser.INSTANCE.deserialize(bytes);
+        }
+
+        if (bytes.length < 2 || bytes[1] != SMILE_VERSION) {
+            throw new SerializationException("Unsupported Smile cache value version.");
+        }
+        return SmileSerialiser.INSTANCE.deserialize(Arrays.copyOfRange(bytes, 2, bytes.length));
+    }
+}
@@ -0,0 +1,169 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Decorates a serialiser so that values above a size threshold are stored Deflate-compressed.
+ * <p>
+ * A compressed value consists of the header byte {@code 0xC2}, the uncompressed length as a 4-byte
+ * big-endian integer and the raw Deflate stream. {@code 0xC2} starts neither a JSON document nor a
+ * {@link CacheValueSerialiser Smile value}, so values below the threshold are stored unchanged and
+ * read without any overhead. A value is also stored unchanged if compressing it does not make it
+ * smaller.
+ * <p>
+ * Deflaters and inflaters hold native memory and are expensive to create, so a few of each are
+ * kept for reuse. The ratio of uncompressed to compressed size of every compressed value is
+ * recorded in the given {@link DistributionSummary}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class CompressingSerialiser implements RedisSerializer<Object> {
+
+    /**
+     * Header byte marking a compressed value.
+     */
+    static final byte COMPRESSED_HEADER = (byte) 0xC2;
+
+    private static final int HEADER_LENGTH = 5;
+
+    /**
+     * Upper bound of the uncompressed length, which protects against corrupted length prefixes.
+     */
+    private static final int MAX_UNCOMPRESSED_LENGTH = 64 * 1024 * 1024;
+
+    private static final int MAX_POOLED = 16;
+
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+    private final DistributionSummary compressionRatio;
+
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Create a serialiser that never compresses but still reads compressed values, for caches
+     * whose compression has been turned off.
+     *
+     * @param delegate serialiser producing the uncompressed bytes
+     */
+    public CompressingSerialiser(RedisSerializer<Object> delegate) {
+        this(delegate, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Create a compressing serialiser.
+     *
+     * @param delegate         serialiser producing the uncompressed bytes
+     * @param threshold        size in bytes from which values are compressed
+     * @param compressionRatio summary recording the compression ratio of compressed values
+     */
+    public CompressingSerialiser(RedisSerializer<Object> delegate, int threshold, DistributionSummary compressionRatio) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.compressionRatio = compressionRatio;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        var bytes = delegate.serialize(value);
+        if (Objects.isNull(bytes) || bytes.length < threshold) {
+            return bytes;
+        }
+
+        var compressed = compress(bytes);
+        if (compressed.length >= bytes.length) {
+            return bytes;
+        }
+
+        compressionRatio.record((double) bytes.length / compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0 || bytes[0] != COMPRESSED_HEADER) {
+            return delegate.deserialize(bytes);
+        }
+        return delegate.deserialize(decompress(bytes));
+    }
+
+    private byte[] compress(byte[] bytes) {
+        var deflater = Objects.requireNonNullElseGet(deflaters.poll(), () -> new Deflater(Deflater.BEST_SPEED, true));
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            // a compressed value larger than the input is discarded, so never grow the buffer
+            var buffer = new byte[HEADER_LENGTH + bytes.length];
+            var length = HEADER_LENGTH;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return bytes;
+            }
+
+            ByteBuffer.wrap(buffer, 0, HEADER_LENGTH).put(COMPRESSED_HEADER).putInt(bytes.length);
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.reset();
+            release(deflaters, deflater);
+        }
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Compressed cache value is truncated.");
+        }
+        var length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        if (length < 0 || length > MAX_UNCOMPRESSED_LENGTH) {
+            throw new SerializationException("Compressed cache value has an invalid length " + length + ".");
+        }
+
+        var inflater = Objects.requireNonNullElseGet(inflaters.poll(), () -> new Inflater(true));
+        try {
+            inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            var result = new byte[length];
+            var offset = 0;
+            while (offset < length && !inflater.finished()) {
+                var inflated = inflater.inflate(result, offset, length - offset);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += inflated;
+            }
+            if (offset != length) {
+                throw new SerializationException("Compressed cache value is truncated.");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new SerializationException("Cannot decompress cache value.", e);
+        } finally {
+            inflater.reset();
+            release(inflaters, inflater);
+        }
+    }
+
+    private static <T> void release(Queue<T> pool, T instance) {
+        // the size check is racy, which only means the pool may briefly hold a few extra instances
+        if (pool.size() < MAX_POOLED) {
+            pool.offer(instance);
+        } else if (instance instanceof Deflater deflater) {
+            deflater.end();
+        } else if (instance instanceof Inflater inflater) {
+            inflater.end();
+        }
+    }
+}
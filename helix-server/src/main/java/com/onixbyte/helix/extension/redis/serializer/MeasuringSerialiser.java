@@ -0,0 +1,55 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Objects;
+
+/**
+ * Decorates a serialiser so that the size of every value written to or read from Redis is recorded,
+ * after compression where it applies.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class MeasuringSerialiser implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final DistributionSummary writtenSize;
+    private final DistributionSummary readSize;
+
+    /**
+     * Create a measuring serialiser.
+     *
+     * @param delegate    the serialiser to measure
+     * @param writtenSize summary recording the size in bytes of serialised values
+     * @param readSize    summary recording the size in bytes of deserialised values
+     */
+    public MeasuringSerialiser(
+            RedisSerializer<Object> delegate,
+            DistributionSummary writtenSize,
+            DistributionSummary readSize
+    ) {
+        this.delegate = delegate;
+        this.writtenSize = writtenSize;
+        this.readSize = readSize;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        var bytes = delegate.serialize(value);
+        if (Objects.nonNull(bytes)) {
+            writtenSize.record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.nonNull(bytes)) {
+            readSize.record(bytes.length);
+        }
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,37 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+/**
+ * Holder of a serialiser writing values as Smile with the same type information as
+ * {@link JacksonSerialiser}.
+ * <p>
+ * The Smile header is left out, since {@link CacheValueSerialiser} prefixes its own versioned
+ * header, and dates are written as timestamps instead of ISO strings.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class SmileSerialiser {
+
+    public static final GenericJackson2JsonRedisSerializer INSTANCE = initialiseSerializer();
+
+    private static GenericJackson2JsonRedisSerializer initialiseSerializer() {
+        var smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        var objectMapper = new ObjectMapper(smileFactory);
+        objectMapper.registerModule(new JavaTimeModule());
+
+        return GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(objectMapper)
+                .defaultTyping(true)
+                .build();
+    }
+}
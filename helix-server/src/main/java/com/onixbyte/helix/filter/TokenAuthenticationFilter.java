@@ -1,11 +1,17 @@
 package com.onixbyte.helix.filter;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.onixbyte.helix.client.TokenClient;
+import com.onixbyte.helix.constant.UserStatus;
+import com.onixbyte.helix.domain.entity.User;
 import com.onixbyte.helix.manager.AuthorityManager;
 import com.onixbyte.helix.manager.UserManager;
 import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import com.onixbyte.helix.security.authority.AuthoritySet;
+import com.onixbyte.helix.security.token.TokenRevocationManager;
+import com.onixbyte.helix.security.token.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,14 +31,18 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
     private final static Logger log = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
 
-    private final Algorithm algorithm;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserManager userManager;
     private final AuthorityManager authorityManager;
+    private final AuthorityRegistry authorityRegistry;
+    private final TokenRevocationManager tokenRevocationManager;
 
-    public TokenAuthenticationFilter(Algorithm algorithm, UserManager userManager, AuthorityManager authorityManager) {
-        this.algorithm = algorithm;
+    public TokenAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, UserManager userManager, AuthorityManager authorityManager, AuthorityRegistry authorityRegistry, TokenRevocationManager tokenRevocationManager) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userManager = userManager;
         this.authorityManager = authorityManager;
+        this.authorityRegistry = authorityRegistry;
+        this.tokenRevocationManager = tokenRevocationManager;
     }
 
     @Override
@@ -53,23 +63,18 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         }
 
         token = token.substring(7);
-        var verifier = JWT.require(algorithm)
-                .withIssuer("Helix Server")
-                .build();
 
         try {
-            var decodedToken = verifier.verify(token);
-            var username = decodedToken.getSubject();
-
-            var user = userManager.queryByUsername(username);
-            var authorities = authorityManager.queryByUserId(user.getId())
-                    .stream()
-                    .map((authority) -> (GrantedAuthority) authority::getCode)
-                    .toList();
+            var decodedToken = verifiedTokenCache.verify(token);
+            if (tokenRevocationManager.isRevoked(decodedToken.getId())) {
+                log.debug("Token {} of user {} has been revoked.", decodedToken.getId(), decodedToken.getSubject());
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            user.setPassword(null);
-
-            var authentication = UsernamePasswordAuthentication.authenticated(user, authorities);
+            var authentication = isSelfContained(decodedToken)
+                    ? authenticateFromClaims(decodedToken)
+                    : authenticateFromLookup(decodedToken);
             SecurityContextHolder.getContext().setAuthentication(authentication);
             filterChain.doFilter(request, response);
         } catch (JWTVerificationException e) {
@@ -77,4 +82,52 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
         }
     }
+
+    /**
+     * Check whether the token carries its own principal, and whether the embedded authorities were
+     * encoded with the current authority registry. A token from an outdated registry is treated
+     * like a plain token, so its authorities are looked up again.
+     *
+     * @param decodedToken verified token
+     * @return {@code true} if the principal can be built from the token alone
+     */
+    private boolean isSelfContained(DecodedJWT decodedToken) {
+        var authorityVersion = decodedToken.getClaim(TokenClient.CLAIM_AUTHORITY_VERSION).asString();
+        if (Objects.isNull(authorityVersion)) {
+            return false;
+        }
+
+        if (!authorityVersion.equals(authorityRegistry.version())) {
+            // the token may have been issued by a node that has already reloaded the registry
+            authorityRegistry.reloadIfOutdated();
+        }
+        if (!authorityVersion.equals(authorityRegistry.version())) {
+            log.debug("Token of user {} carries outdated authority version {}.", decodedToken.getSubject(), authorityVersion);
+            return false;
+        }
+        return true;
+    }
+
+    private UsernamePasswordAuthentication authenticateFromClaims(DecodedJWT decodedToken) {
+        var status = decodedToken.getClaim(TokenClient.CLAIM_STATUS).asString();
+        var user = User.builder()
+                .id(decodedToken.getClaim(TokenClient.CLAIM_USER_ID).asLong())
+                .username(decodedToken.getSubject())
+                .departmentId(decodedToken.getClaim(TokenClient.CLAIM_DEPARTMENT_ID).asLong())
+                .status(Objects.nonNull(status) ? UserStatus.valueOf(status) : null)
+                .build();
+        var authoritySet = AuthoritySet.decode(decodedToken.getClaim(TokenClient.CLAIM_AUTHORITIES).asString());
+
+        return UsernamePasswordAuthentication.authenticated(user, authorityRegistry.toGrantedAuthorities(authoritySet), authoritySet);
+    }
+
+    private UsernamePasswordAuthentication authenticateFromLookup(DecodedJWT decodedToken) {
+        var user = userManager.queryByUsername(decodedToken.getSubject()).withoutPassword();
+        var authorities = authorityManager.queryByUserId(user.getId())
+                .stream()
+                .map((authority) -> (GrantedAuthority) authority::getCode)
+                .toList();
+
+        return UsernamePasswordAuthentication.authenticated(user, authorities, authorityRegistry.toAuthoritySet(authorities));
+    }
 }
@@ -17,7 +17,7 @@ public class AuthorityManager {
         this.authorityRepository = authorityRepository;
     }
 
-    @Cacheable(cacheNames = CacheName.AUTHORITIES_OF_USER, key = "#userId")
+    @Cacheable(cacheNames = CacheName.AUTHORITIES_OF_USER, key = "#userId", sync = true)
     public List<Authority> queryByUserId(Long userId) {
         return authorityRepository.selectByUserId(userId);
     }
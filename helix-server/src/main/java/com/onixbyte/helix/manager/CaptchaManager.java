@@ -27,10 +27,8 @@ public class CaptchaManager {
     }
 
     public String getCaptcha(String uuid) {
-        var key = buildCacheKey(uuid);
-        var captcha = redisClient.get(key, String.class);
-        redisClient.delete(key);
-        return captcha;
+        // 读取并删除在同一次操作中完成，同一验证码只能被使用一次
+        return redisClient.getAndDelete(buildCacheKey(uuid), String.class);
     }
 
     private String buildCacheKey(String uuid) {
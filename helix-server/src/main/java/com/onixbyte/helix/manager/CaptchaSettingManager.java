@@ -0,0 +1,30 @@
+package com.onixbyte.helix.manager;
+
+import com.onixbyte.helix.constant.CaptchaType;
+import com.onixbyte.helix.constant.SettingName;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CaptchaSettingManager {
+
+    private final SettingManager settingManager;
+
+    public CaptchaSettingManager(SettingManager settingManager) {
+        this.settingManager = settingManager;
+    }
+
+    public boolean isCaptchaEnabled() {
+        return settingManager.getBoolean(SettingName.CAPTCHA_ENABLED, false);
+    }
+
+    /**
+     * Get the configured captcha type. Unknown values fall back to {@link CaptchaType#JPEG}.
+     *
+     * @return captcha type
+     */
+    public CaptchaType getCaptchaType() {
+        return settingManager.getString(SettingName.CAPTCHA_TYPE)
+                .map((type) -> CaptchaType.of(type, CaptchaType.JPEG))
+                .orElse(CaptchaType.JPEG);
+    }
+}
@@ -1,9 +1,11 @@
 package com.onixbyte.helix.manager;
 
+import com.onixbyte.helix.constant.CacheName;
 import com.onixbyte.helix.domain.common.PageRequest;
 import com.onixbyte.helix.domain.entity.Department;
 import com.onixbyte.helix.domain.model.TreeNode;
 import com.onixbyte.helix.repository.DepartmentRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -21,6 +23,16 @@ public class DepartmentManager {
         return departmentRepository.selectAll(pageRequest);
     }
 
+    /**
+     * Get the tree of all departments, and cache it as a whole.
+     *
+     * @return root departments with their sub-departments
+     */
+    @Cacheable(cacheNames = CacheName.DEPARTMENT_TREE, key = "'all'", sync = true)
+    public List<TreeNode<Department>> queryTree() {
+        return buildTree(selectAll(PageRequest.unpaged()));
+    }
+
     /**
      * Organises a flat list of Department objects into a list of
      * {@code TreeNode<Department>} objects. Each TreeNode's item will be a Department, and its
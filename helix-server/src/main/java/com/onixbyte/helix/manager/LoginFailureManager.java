@@ -0,0 +1,53 @@
+package com.onixbyte.helix.manager;
+
+import com.onixbyte.helix.client.RedisClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Counts failed logins across all nodes in one-minute windows.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class LoginFailureManager {
+
+    private final RedisClient redisClient;
+
+    public LoginFailureManager(RedisClient redisClient) {
+        this.redisClient = redisClient;
+    }
+
+    /**
+     * Record a failed login in the current window.
+     */
+    public void recordFailure() {
+        redisClient.increment(buildCacheKey(currentWindow()), Duration.ofMinutes(2L));
+    }
+
+    /**
+     * Count the failed logins of the last complete window, or of the current one if it already
+     * has more, so that a sudden burst is noticed before its window closes.
+     *
+     * @return number of failed logins within about the last minute
+     */
+    public long countRecentFailures() {
+        var window = currentWindow();
+        return redisClient.multiGet(List.of(buildCacheKey(window), buildCacheKey(window - 1))).stream()
+                .mapToLong((value) -> value instanceof Number number ? number.longValue() : 0L)
+                .max()
+                .orElse(0L);
+    }
+
+    private long currentWindow() {
+        return Instant.now().getEpochSecond() / 60L;
+    }
+
+    private String buildCacheKey(long window) {
+        return "login-failure::" + window;
+    }
+}
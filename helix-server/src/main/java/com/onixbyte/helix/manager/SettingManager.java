@@ -0,0 +1,255 @@
+package com.onixbyte.helix.manager;
+
+import com.onixbyte.helix.domain.entity.Setting;
+import com.onixbyte.helix.exception.BizException;
+import com.onixbyte.helix.repository.SettingRepository;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds every setting in an immutable in-memory snapshot, so that reading a setting never leaves
+ * the JVM.
+ * <p>
+ * The snapshot is loaded on startup and replaced as a whole whenever a setting changes. A trigger
+ * on the {@code settings} table sends a Postgres {@code NOTIFY} on the {@code settings_changed}
+ * channel for every change, whichever node made it. Each node keeps one database connection
+ * listening on that channel and reloads its snapshot when a notification arrives. After the
+ * listening connection has been lost, the snapshot is reloaded once it is listening again, so no
+ * change made in the meantime is missed.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class SettingManager implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SettingManager.class);
+
+    private static final String CHANNEL = "settings_changed";
+
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5_000L;
+
+    private final SettingRepository settingRepository;
+    private final DataSource dataSource;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Map<String, Setting> snapshot;
+    private volatile boolean running;
+    private Thread listener;
+
+    public SettingManager(SettingRepository settingRepository, DataSource dataSource) {
+        this.settingRepository = settingRepository;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Get the effective value of a setting.
+     *
+     * @param name setting name, see {@link com.onixbyte.helix.constant.SettingName}
+     * @return the effective value, or empty if the setting does not exist or has no value
+     */
+    public Optional<String> getString(String name) {
+        return Optional.ofNullable(snapshot().get(name)).map(Setting::asString);
+    }
+
+    /**
+     * Get the effective value of a boolean setting.
+     *
+     * @param name         setting name, see {@link com.onixbyte.helix.constant.SettingName}
+     * @param defaultValue value returned if the setting does not exist
+     * @return the effective value
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        var setting = snapshot().get(name);
+        return Objects.nonNull(setting) ? setting.asBoolean() : defaultValue;
+    }
+
+    /**
+     * Get the effective value of an integer setting.
+     *
+     * @param name         setting name, see {@link com.onixbyte.helix.constant.SettingName}
+     * @param defaultValue value returned if the setting does not exist or is not an integer
+     * @return the effective value
+     */
+    public int getInt(String name, int defaultValue) {
+        var setting = snapshot().get(name);
+        if (Objects.isNull(setting)) {
+            return defaultValue;
+        }
+
+        try {
+            return setting.asInt();
+        } catch (NumberFormatException e) {
+            log.warn("Setting {} is not an integer, using {} instead.", name, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get all settings. The returned settings are shared with other callers and must not be
+     * modified.
+     *
+     * @return all settings in the order of their IDs
+     */
+    public List<Setting> getAll() {
+        return List.copyOf(snapshot().values());
+    }
+
+    /**
+     * Update the current value of a setting. The value is checked against the type of the setting,
+     * and the snapshot of this node is replaced before returning.
+     *
+     * @param name  setting name
+     * @param value new value, {@code null} restores the default value
+     * @return the updated setting
+     */
+    public Setting update(String name, String value) {
+        var setting = snapshot().get(name);
+        if (Objects.isNull(setting)) {
+            throw new BizException(HttpStatus.NOT_FOUND, "设置项不存在");
+        }
+        if (Objects.nonNull(value) && !isValid(setting, value)) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "设置值与设置项类型不匹配");
+        }
+
+        var affectedRows = settingRepository.updateValue(name, value);
+        if (affectedRows != 1) {
+            throw new BizException(HttpStatus.INTERNAL_SERVER_ERROR, "Setting update failed.");
+        }
+
+        // other nodes reload on the notification, this node does not wait for it
+        reload();
+        return snapshot().get(name);
+    }
+
+    /**
+     * Reload the snapshot from the database.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private boolean isValid(Setting setting, String value) {
+        return switch (setting.getType()) {
+            case STRING -> true;
+            case BOOLEAN -> "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+            case INT -> {
+                try {
+                    Integer.parseInt(value);
+                    yield true;
+                } catch (NumberFormatException e) {
+                    yield false;
+                }
+            }
+        };
+    }
+
+    private void load() {
+        var settings = settingRepository.selectAll();
+        var _snapshot = new LinkedHashMap<String, Setting>();
+        settings.forEach((setting) -> _snapshot.put(setting.getName(), setting));
+        snapshot = Collections.unmodifiableMap(_snapshot);
+        log.info("Settings loaded, {} settings.", settings.size());
+    }
+
+    private Map<String, Setting> snapshot() {
+        var current = snapshot;
+        if (Objects.isNull(current)) {
+            reloadLock.lock();
+            try {
+                if (Objects.isNull(snapshot)) {
+                    load();
+                }
+                current = snapshot;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "setting-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (Objects.nonNull(listener)) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (var connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // changes made while not listening have not been notified
+                reload();
+                receive(connection);
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Lost the listening connection of settings changes, reconnecting.", e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        var pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            var notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (Objects.nonNull(notifications) && notifications.length > 0) {
+                log.debug("Received {} settings changes.", notifications.length);
+                reload();
+                continue;
+            }
+
+            // a broken connection does not fail while only waiting for notifications
+            try (var statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+        }
+    }
+}
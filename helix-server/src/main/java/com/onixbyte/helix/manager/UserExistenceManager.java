@@ -0,0 +1,243 @@
+package com.onixbyte.helix.manager;
+
+import com.onixbyte.helix.client.RedisClient;
+import com.onixbyte.helix.common.bloom.BloomFilter;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import com.onixbyte.helix.properties.CacheProperties;
+import com.onixbyte.helix.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers whether a username can exist without querying the database, so that lookups of unknown
+ * usernames, which make up most credential-stuffing traffic, cost no database round trip.
+ * <p>
+ * Two mechanisms are combined:
+ * <ul>
+ *   <li>a {@link BloomFilter} of all existing usernames, held in memory, which rejects most unknown
+ *       usernames without any I/O</li>
+ *   <li>short-lived negative entries {@code user-absent::<username>} in Redis for unknown
+ *       usernames that pass the filter as false positives</li>
+ * </ul>
+ * Usernames of new users are added to the filter of every node through the user-created channel,
+ * and their negative entry is removed. The filter is rebuilt from the database periodically, which
+ * drops usernames of deleted or renamed users and adds those whose announcement was missed.
+ * <p>
+ * The filter is only trusted while this node is subscribed to the user-created channel, since new
+ * usernames announced while it is not would be rejected. Until the first build succeeds, and
+ * whenever the subscription is down, every username is assumed to exist. The filter is rebuilt
+ * whenever the subscription is re-established, which picks up announcements missed in between.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class UserExistenceManager implements MessageListener, SubscriptionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceManager.class);
+
+    private static final long MINIMUM_EXPECTED_INSERTIONS = 10_000L;
+
+    private final UserRepository userRepository;
+    private final RedisClient redisClient;
+    private final CacheProperties.UsernameFilter usernameFilterProperties;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    /**
+     * Usernames added since the current rebuild started, which the rebuilt filter may have missed.
+     */
+    private final Set<String> recentlyAdded = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter usernames;
+    private volatile boolean subscribed;
+    private volatile boolean everSubscribed;
+
+    public UserExistenceManager(
+            UserRepository userRepository,
+            RedisClient redisClient,
+            CacheProperties cacheProperties,
+            RedisMessageListenerContainer redisMessageListenerContainer
+    ) {
+        this.userRepository = userRepository;
+        this.redisClient = redisClient;
+        this.usernameFilterProperties = cacheProperties.usernameFilter();
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(usernameFilterProperties.channel()));
+    }
+
+    /**
+     * Check whether a user with the given username might exist. This never performs any I/O.
+     *
+     * @param username the username
+     * @return {@code false} if the user definitely does not exist
+     */
+    public boolean mightExist(String username) {
+        if (Objects.isNull(username)) {
+            return false;
+        }
+        var current = usernames;
+        return Objects.isNull(current) || !isSubscribed() || current.mightContain(username);
+    }
+
+    /**
+     * Check whether the given username has recently been looked up and not found.
+     *
+     * @param username the username
+     * @return {@code true} if the user is known not to exist
+     */
+    public boolean isKnownAbsent(String username) {
+        try {
+            return Objects.nonNull(redisClient.get(buildCacheKey(username)));
+        } catch (Exception e) {
+            log.warn("Cannot read negative cache entry of user {}.", username, e);
+            return false;
+        }
+    }
+
+    /**
+     * Remember that the given username does not exist.
+     *
+     * @param username the username
+     */
+    public void markAbsent(String username) {
+        try {
+            redisClient.set(buildCacheKey(username), true, usernameFilterProperties.negativeTtl());
+        } catch (Exception e) {
+            log.warn("Cannot write negative cache entry of user {}.", username, e);
+        }
+    }
+
+    /**
+     * Record that a user with the given username exists, on this and every other node.
+     * <p>
+     * Inside a transaction, this happens only once the transaction has committed. Otherwise a
+     * concurrent lookup that still reads the uncommitted state could write the negative entry again
+     * after it was removed, and the new user could not log in until it expires.
+     *
+     * @param username the username
+     */
+    public void markExists(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doMarkExists(username);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    doMarkExists(username);
+                } catch (Exception e) {
+                    // the user has been committed already, the negative entry expires by itself
+                    log.error("Cannot record creation of user {} after commit.", username, e);
+                }
+            }
+        });
+    }
+
+    private void doMarkExists(String username) {
+        add(username);
+        redisClient.delete(buildCacheKey(username));
+        try {
+            redisClient.publish(usernameFilterProperties.channel(), username);
+        } catch (Exception e) {
+            // other nodes keep rejecting the username until their next rebuild
+            log.error("Cannot publish creation of user {}.", username, e);
+        }
+    }
+
+    /**
+     * Build the filter when the application has started.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialise() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the filter from the usernames in the database.
+     */
+    @Scheduled(
+            initialDelayString = "${app.cache.username-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${app.cache.username-filter.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            recentlyAdded.clear();
+            var allUsernames = userRepository.selectAllUsernames();
+
+            var filter = new BloomFilter(Math.max(MINIMUM_EXPECTED_INSERTIONS, allUsernames.size() * 2L),
+                    usernameFilterProperties.falsePositiveProbability());
+            allUsernames.forEach(filter::put);
+            usernames = filter;
+            recentlyAdded.forEach(filter::put);
+            log.info("Username filter rebuilt with {} usernames.", allUsernames.size());
+        } catch (Exception e) {
+            log.error("Cannot rebuild username filter.", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        subscribed = true;
+        if (everSubscribed) {
+            // usernames announced while the subscription was down have been missed
+            log.info("Resubscribed to channel {}, rebuilding username filter.", usernameFilterProperties.channel());
+            CompletableFuture.runAsync(this::rebuild);
+        }
+        everSubscribed = true;
+    }
+
+    @Override
+    public void onChannelUnsubscribed(byte[] channel, long count) {
+        subscribed = false;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(JacksonSerialiser.INSTANCE.deserialize(message.getBody()) instanceof String username)) {
+            log.warn("Unrecognised message received on channel {}.", usernameFilterProperties.channel());
+            return;
+        }
+        add(username);
+    }
+
+    private boolean isSubscribed() {
+        return subscribed && redisMessageListenerContainer.isListening();
+    }
+
+    private void add(String username) {
+        recentlyAdded.add(username);
+        var current = usernames;
+        if (Objects.nonNull(current)) {
+            current.put(username);
+        }
+    }
+
+    private String buildCacheKey(String username) {
+        return "user-absent::" + username;
+    }
+}
@@ -1,10 +1,13 @@
 package com.onixbyte.helix.manager;
 
 import com.onixbyte.helix.constant.CacheName;
+import com.onixbyte.helix.domain.common.Cursor;
+import com.onixbyte.helix.domain.common.CursorPage;
 import com.onixbyte.helix.domain.entity.User;
 import com.onixbyte.helix.domain.web.request.QueryUserRequest;
 import com.onixbyte.helix.exception.BizException;
 import com.onixbyte.helix.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
@@ -13,24 +16,42 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
+import java.util.Objects;
+
 @Component
 public class UserManager {
 
     private final UserRepository userRepository;
+    private final UserExistenceManager userExistenceManager;
 
-    public UserManager(UserRepository userRepository) {
+    public UserManager(UserRepository userRepository, UserExistenceManager userExistenceManager) {
         this.userRepository = userRepository;
+        this.userExistenceManager = userExistenceManager;
     }
 
     /**
-     * Get user by username, and cache this user by username.
+     * Get user by username, and cache this user by username. Concurrent misses of the same user
+     * are loaded once, and unknown users are not cached.
+     * <p>
+     * Usernames rejected by the {@link UserExistenceManager} filter bypass the cache and return
+     * {@code null} without any I/O. Unknown usernames that pass the filter are remembered as absent
+     * for a short while, so repeated lookups do not reach the database.
      *
      * @param username username
-     * @return user
+     * @return user, or {@code null} if no such user exists
      */
-    @Cacheable(cacheNames = CacheName.USER, key = "#username", unless = "#result == null")
+    @Cacheable(cacheNames = CacheName.USER, key = "#username", sync = true,
+            condition = "@userExistenceManager.mightExist(#username)")
     public User queryByUsername(String username) {
-        return userRepository.selectByUsername(username);
+        if (!userExistenceManager.mightExist(username) || userExistenceManager.isKnownAbsent(username)) {
+            return null;
+        }
+
+        var user = userRepository.selectByUsername(username);
+        if (Objects.isNull(user)) {
+            userExistenceManager.markAbsent(username);
+        }
+        return user;
     }
 
     /**
@@ -49,12 +70,34 @@ public class UserManager {
                 });
     }
 
+    /**
+     * Query users with keyset pagination. One more user than requested is read to tell whether
+     * there is a next page, so no count query is needed.
+     *
+     * @param cursor   position to continue from
+     * @param pageSize page size
+     * @param request  query conditions
+     * @return page result
+     */
+    public CursorPage<User> queryPage(Cursor cursor, int pageSize, QueryUserRequest request) {
+        var result = userRepository.selectAfter(cursor.lastId(), pageSize + 1, request);
+        var hasNext = result.size() > pageSize;
+        var content = hasNext ? result.subList(0, pageSize) : result;
+        var nextCursor = hasNext ? Cursor.after(content.get(content.size() - 1).getId()).encode() : null;
+        return new CursorPage<>(content, pageSize, nextCursor)
+                .map((user) -> {
+                    user.setPassword(null);
+                    return user;
+                });
+    }
+
     @CachePut(cacheNames = CacheName.USER, key = "#user.username")
     public User save(User user) {
         var affectedRows = userRepository.save(user);
         if (affectedRows != 1) {
             throw new BizException(HttpStatus.INTERNAL_SERVER_ERROR, "User save failed.");
         }
+        userExistenceManager.markExists(user.getUsername());
         return user;
     }
 
@@ -67,6 +110,24 @@ public class UserManager {
         if (affectedRows != 1) {
             throw new BizException(HttpStatus.INTERNAL_SERVER_ERROR, "User update failed.");
         }
+        if (Objects.nonNull(user.getUsername())) {
+            userExistenceManager.markExists(user.getUsername());
+        }
         return user;
     }
+
+    /**
+     * Replace the password hash of a user, and evict the cached user.
+     *
+     * @param id       user ID
+     * @param username username, used as the cache key
+     * @param password new encoded password
+     */
+    @CacheEvict(cacheNames = CacheName.USER, key = "#username")
+    public void updatePassword(Long id, String username, String password) {
+        var affectedRows = userRepository.updatePassword(id, password);
+        if (affectedRows != 1) {
+            throw new BizException(HttpStatus.INTERNAL_SERVER_ERROR, "User password update failed.");
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package com.onixbyte.helix.processor;
+
+import com.onixbyte.helix.constant.CacheName;
+import com.onixbyte.helix.extension.cache.BatchingCacheWriter;
+import com.onixbyte.helix.extension.cache.NearCacheDecorator;
+import com.onixbyte.helix.manager.AuthorityManager;
+import com.onixbyte.helix.manager.DepartmentManager;
+import com.onixbyte.helix.properties.CacheProperties;
+import com.onixbyte.helix.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the caches on startup, so that the first requests after a deploy do not all reach the
+ * database.
+ * <p>
+ * The department tree, and the users most recently updated together with their authorities are
+ * loaded in parallel through the cached managers, so every cache tier is filled
+ * the same way as on a regular miss. Spring Boot reports the application as ready to accept
+ * traffic only after all application runners have returned, so this runner holds readiness back
+ * until loading completes or {@link CacheProperties.WarmUp#timeout()} passes. Loading that has not
+ * completed by then continues in the background.
+ * <p>
+ * Users are written to Redis in a single pipeline and to the in-process tier of this node without
+ * announcing them, so warming up a node does not evict entries from the in-process tiers of the
+ * nodes already serving traffic.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class CacheWarmUpProcessor implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmUpProcessor.class);
+
+    private final CacheManager cacheManager;
+    private final BatchingCacheWriter batchingCacheWriter;
+    private final NearCacheDecorator nearCacheDecorator;
+    private final UserRepository userRepository;
+    private final AuthorityManager authorityManager;
+    private final DepartmentManager departmentManager;
+    private final CacheProperties.WarmUp warmUpProperties;
+
+    public CacheWarmUpProcessor(
+            CacheManager cacheManager,
+            BatchingCacheWriter batchingCacheWriter,
+            NearCacheDecorator nearCacheDecorator,
+            UserRepository userRepository,
+            AuthorityManager authorityManager,
+            DepartmentManager departmentManager,
+            CacheProperties cacheProperties
+    ) {
+        this.cacheManager = cacheManager;
+        this.batchingCacheWriter = batchingCacheWriter;
+        this.nearCacheDecorator = nearCacheDecorator;
+        this.userRepository = userRepository;
+        this.authorityManager = authorityManager;
+        this.departmentManager = departmentManager;
+        this.warmUpProperties = cacheProperties.warmUp();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmUpProperties.enabled()) {
+            return;
+        }
+
+        var threadNumber = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(Math.max(1, warmUpProperties.parallelism()), (runnable) -> {
+            var thread = new Thread(runnable, "cache-warm-up-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        var startedAt = System.nanoTime();
+        try {
+            var tasks = new ArrayList<CompletableFuture<?>>();
+            tasks.add(CompletableFuture.runAsync(departmentManager::queryTree, executor));
+            tasks.add(warmUpUsers(executor));
+
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .get(warmUpProperties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Caches warmed up in {} ms.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up did not complete within {}, accepting traffic while it continues.",
+                    warmUpProperties.timeout());
+        } catch (ExecutionException e) {
+            log.error("Cache warm-up failed, accepting traffic with cold caches.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // queued tasks still run, the threads end once the queue is drained
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Put the most recently updated users into the user cache, then load their authorities. The
+     * users are read with a single query and written to Redis in a single pipeline, while
+     * authorities are loaded per user in parallel.
+     *
+     * @param executor executor loading the entries
+     * @return completes when all entries are loaded
+     */
+    private CompletableFuture<Void> warmUpUsers(ExecutorService executor) {
+        return CompletableFuture.supplyAsync(() -> userRepository.selectRecentlyActive(warmUpProperties.recentUsers()), executor)
+                .thenCompose((users) -> {
+                    var userCache = cacheManager.getCache(CacheName.USER);
+                    if (Objects.nonNull(userCache)) {
+                        batchingCacheWriter.batch(() -> users.forEach((user) ->
+                                nearCacheDecorator.prime(userCache, user.getUsername(), user)));
+                    }
+
+                    var tasks = new ArrayList<CompletableFuture<?>>(users.size());
+                    for (var user : users) {
+                        tasks.add(CompletableFuture.runAsync(() -> authorityManager.queryByUserId(user.getId()), executor));
+                    }
+                    return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                            .thenRun(() -> log.info("Warmed up {} users.", users.size()));
+                });
+    }
+}
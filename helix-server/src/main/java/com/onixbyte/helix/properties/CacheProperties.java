@@ -0,0 +1,201 @@
+package com.onixbyte.helix.properties;
+
+import com.onixbyte.helix.extension.redis.serializer.CacheCodec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuration properties for the layered cache built on top of Redis.
+ * <p>
+ * Each entry in {@code specs} is keyed by a cache name from
+ * {@link com.onixbyte.helix.constant.CacheName} and tunes that cache individually. Caches without
+ * an entry fall back to {@link CacheSpec#DEFAULT}, which keeps them Redis-only, stores their
+ * values as JSON and expires them after 90 minutes with a jitter of 10%.
+ * <p>
+ * <strong>Configuration Example:</strong>
+ * <pre>{@code
+ * app:
+ *   cache:
+ *     invalidation-channel: helix:cache:invalidation
+ *     specs:
+ *       user:
+ *         local-maximum-size: 10000
+ *         local-ttl: PT1M
+ *         codec: smile
+ *         single-flight-lease: PT3S
+ *         ttl: PT1H30M
+ *         ttl-jitter: 10
+ *         early-refresh-beta: 1.0
+ *       user-authorities:
+ *         compression-threshold: 1KB
+ *     username-filter:
+ *       rebuild-interval: PT10M
+ *       negative-ttl: PT5M
+ *     warm-up:
+ *       timeout: PT30S
+ *       recent-users: 1000
+ * }</pre>
+ *
+ * @param invalidationChannel Redis pub/sub channel used to tell other nodes to drop their local
+ *                            copy of an entry
+ * @param specs               per-cache settings keyed by cache name
+ * @param usernameFilter      settings of the filter that rejects lookups of unknown usernames
+ * @param warmUp              settings of filling the caches on startup
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheProperties(
+        @DefaultValue("helix:cache:invalidation") String invalidationChannel,
+        Map<String, CacheSpec> specs,
+        @DefaultValue UsernameFilter usernameFilter,
+        @DefaultValue WarmUp warmUp
+) {
+
+    public CacheProperties {
+        specs = Objects.requireNonNullElse(specs, Map.of());
+    }
+
+    /**
+     * Get the settings of the given cache.
+     *
+     * @param cacheName name of the cache
+     * @return settings of the cache, or {@link CacheSpec#DEFAULT} if the cache is not configured
+     */
+    public CacheSpec specOf(String cacheName) {
+        return specs.getOrDefault(cacheName, CacheSpec.DEFAULT);
+    }
+
+    /**
+     * Settings of a single cache.
+     *
+     * @param localMaximumSize maximum number of entries kept in the in-process tier, {@code 0}
+     *                         disables the in-process tier for this cache
+     * @param localTtl         how long an entry may live in the in-process tier after it was
+     *                         written, this bounds staleness if an invalidation message is lost
+     * @param codec            encoding of the values written to Redis, values written with another
+     *                         codec remain readable
+     * @param compressionThreshold size from which values are compressed before they are written
+     *                             to Redis, {@code 0} disables compression for this cache
+     * @param singleFlightLease    how long a node may load a missing entry before other nodes load
+     *                             it as well, {@code 0} coalesces misses within each node only
+     * @param ttl                  time to live of entries in Redis
+     * @param ttlJitter            percentage by which the time to live of each entry is randomly
+     *                             shortened or extended, so that entries written together do not
+     *                             expire together
+     * @param earlyRefreshBeta     eagerness of reloading entries shortly before they expire, as
+     *                             the {@code beta} of XFetch, {@code 0} disables early refresh
+     * @param clientTracking       whether Redis itself invalidates the in-process tier through
+     *                             {@code CLIENT TRACKING}, instead of invalidation messages
+     */
+    public record CacheSpec(
+            @DefaultValue("0") long localMaximumSize,
+            @DefaultValue("PT1M") Duration localTtl,
+            @DefaultValue("json") CacheCodec codec,
+            @DefaultValue("0B") DataSize compressionThreshold,
+            @DefaultValue("0s") Duration singleFlightLease,
+            @DefaultValue("PT1H30M") Duration ttl,
+            @DefaultValue("10") int ttlJitter,
+            @DefaultValue("0") double earlyRefreshBeta,
+            @DefaultValue("false") boolean clientTracking
+    ) {
+
+        public static final CacheSpec DEFAULT = new CacheSpec(0L, Duration.ofMinutes(1L), CacheCodec.JSON,
+                DataSize.ofBytes(0L), Duration.ZERO, Duration.ofMinutes(90L), 10, 0D, false);
+
+        /**
+         * Whether an in-process tier invalidated by messages should be placed in front of Redis.
+         *
+         * @return {@code true} if the in-process tier is enabled
+         */
+        public boolean localEnabled() {
+            return localMaximumSize > 0 && !clientTracking;
+        }
+
+        /**
+         * Whether an in-process tier invalidated by Redis itself should be placed in front of
+         * Redis.
+         *
+         * @return {@code true} if the tracked in-process tier is enabled
+         */
+        public boolean trackingEnabled() {
+            return localMaximumSize > 0 && clientTracking;
+        }
+
+        /**
+         * Whether large values should be compressed.
+         *
+         * @return {@code true} if compression is enabled
+         */
+        public boolean compressionEnabled() {
+            return compressionThreshold.toBytes() > 0;
+        }
+
+        /**
+         * Whether entries should be reloaded before they expire.
+         *
+         * @return {@code true} if early refresh is enabled
+         */
+        public boolean earlyRefreshEnabled() {
+            return earlyRefreshBeta > 0;
+        }
+
+        /**
+         * Get the time to live of a new entry, with the jitter applied.
+         *
+         * @return time to live of a new entry
+         */
+        public Duration jitteredTtl() {
+            if (ttlJitter <= 0) {
+                return ttl;
+            }
+            var jitter = Math.min(ttlJitter, 100) / 100D;
+            var factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+            return Duration.ofMillis(Math.max(1L, (long) (ttl.toMillis() * factor)));
+        }
+    }
+
+    /**
+     * Settings of the filter that rejects lookups of unknown usernames.
+     *
+     * @param falsePositiveProbability probability that an unknown username passes the in-memory
+     *                                 filter and has to be checked against Redis or the database
+     * @param rebuildInterval          interval at which the filter is rebuilt from the database,
+     *                                 which drops usernames of deleted or renamed users and adds
+     *                                 those whose announcement was missed
+     * @param negativeTtl              how long an unknown username that passed the filter is
+     *                                 remembered as absent in Redis
+     * @param channel                  Redis pub/sub channel used to tell other nodes about new
+     *                                 usernames
+     */
+    public record UsernameFilter(
+            @DefaultValue("0.01") double falsePositiveProbability,
+            @DefaultValue("PT10M") Duration rebuildInterval,
+            @DefaultValue("PT5M") Duration negativeTtl,
+            @DefaultValue("helix:user:created") String channel
+    ) {
+    }
+
+    /**
+     * Settings of filling the caches on startup.
+     *
+     * @param enabled     whether the caches are filled before the application reports readiness
+     * @param timeout     how long readiness waits for the caches to be filled, loading continues
+     *                    in the background afterwards
+     * @param recentUsers number of most recently updated users whose entries are loaded
+     * @param parallelism number of threads loading entries
+     */
+    public record WarmUp(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("PT30S") Duration timeout,
+            @DefaultValue("1000") int recentUsers,
+            @DefaultValue("4") int parallelism
+    ) {
+    }
+}
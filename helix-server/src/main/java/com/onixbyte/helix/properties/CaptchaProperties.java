@@ -0,0 +1,107 @@
+package com.onixbyte.helix.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for captcha generation.
+ * <p>
+ * Captcha images are rendered ahead of time by background workers and kept in a bounded pool.
+ * Workers start refilling when the pool drops below {@code low-watermark} and stop once it reaches
+ * {@code high-watermark}. A request that finds the pool empty renders its captcha synchronously.
+ * <p>
+ * Captchas of type {@link com.onixbyte.helix.constant.CaptchaType#SIGNED SIGNED} are not stored
+ * in Redis. Their answer is sealed into a challenge signed with {@code signed.secret}, and consumed
+ * challenges are remembered in memory and announced on {@code signed.consumed-channel}.
+ * <p>
+ * Captchas of type {@link com.onixbyte.helix.constant.CaptchaType#PROOF_OF_WORK PROOF_OF_WORK}
+ * are signed challenges as well. Their difficulty starts at {@code proof-of-work.min-difficulty}
+ * and grows by one bit, doubling the expected client work, each time the number of failed logins
+ * in the last minute doubles beyond {@code proof-of-work.failures-per-step}.
+ * <p>
+ * <strong>Configuration Example:</strong>
+ * <pre>{@code
+ * app:
+ *   captcha:
+ *     length: 6
+ *     pool:
+ *       enabled: true
+ *       low-watermark: 256
+ *       high-watermark: 1024
+ *       workers: 2
+ *     signed:
+ *       secret: "your-256-bit-secret-key-here"
+ *       valid-time: PT5M
+ *       consumed-channel: "helix:captcha:consumed"
+ *       expected-insertions: 100000
+ *     proof-of-work:
+ *       min-difficulty: 16
+ *       max-difficulty: 24
+ *       failures-per-step: 50
+ * }</pre>
+ *
+ * @param length      length of the captcha code
+ * @param pool        settings of the pre-generated captcha pool
+ * @param signed      settings of signed captcha challenges
+ * @param proofOfWork settings of proof-of-work challenges
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = "app.captcha")
+public record CaptchaProperties(
+        @DefaultValue("6") int length,
+        @DefaultValue Pool pool,
+        @DefaultValue Signed signed,
+        @DefaultValue ProofOfWork proofOfWork
+) {
+
+    /**
+     * Settings of the pre-generated captcha pool.
+     *
+     * @param enabled       whether captchas are pre-generated
+     * @param lowWatermark  pool depth below which workers start refilling
+     * @param highWatermark pool depth at which workers stop refilling, also the pool capacity
+     * @param workers       number of background worker threads
+     */
+    public record Pool(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("256") int lowWatermark,
+            @DefaultValue("1024") int highWatermark,
+            @DefaultValue("2") int workers
+    ) {
+    }
+
+    /**
+     * Settings of signed captcha challenges.
+     *
+     * @param secret             secret to sign challenges with, the token secret is used if absent
+     * @param validTime          how long a challenge can be answered
+     * @param consumedChannel    Redis pub/sub channel on which consumed challenge IDs are announced
+     * @param expectedInsertions number of challenges expected to be consumed within one validity
+     *                           period, used to size the in-memory filter of consumed challenges
+     */
+    public record Signed(
+            String secret,
+            @DefaultValue("PT5M") Duration validTime,
+            @DefaultValue("helix:captcha:consumed") String consumedChannel,
+            @DefaultValue("100000") long expectedInsertions
+    ) {
+    }
+
+    /**
+     * Settings of proof-of-work challenges.
+     *
+     * @param minDifficulty   number of leading zero bits required while logins rarely fail
+     * @param maxDifficulty   upper bound of the number of leading zero bits
+     * @param failuresPerStep number of failed logins per minute at which the difficulty is raised
+     *                        by the first bit
+     */
+    public record ProofOfWork(
+            @DefaultValue("16") int minDifficulty,
+            @DefaultValue("24") int maxDifficulty,
+            @DefaultValue("50") int failuresPerStep
+    ) {
+    }
+}
@@ -76,7 +76,7 @@ public record CorsProperties(
         boolean allowPrivateNetwork,
         @DefaultValue("PT1H30M")
         Duration maxAge,
-        @DefaultValue({"Content-Type", "Authorization"})
+        @DefaultValue({"Content-Type", "Authorization", "X-Captcha-Id"})
         String[] exposedHeaders
 ) {
 }
@@ -0,0 +1,52 @@
+package com.onixbyte.helix.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for password hashing.
+ * <p>
+ * Passwords are hashed with the algorithm named by {@code encoding-id}. Hashes produced by another
+ * algorithm or with a lower cost are still accepted, and are replaced with a hash of the configured
+ * algorithm and cost when their owner logs in successfully.
+ * <p>
+ * Hashing runs on a dedicated pool of {@code hashing-threads} threads with room for
+ * {@code queue-capacity} waiting requests. Requests beyond that are rejected immediately with
+ * {@code 503 Service Unavailable}, so a burst of logins cannot occupy every request thread.
+ * <p>
+ * <strong>Configuration Example:</strong>
+ * <pre>{@code
+ * app:
+ *   password:
+ *     encoding-id: bcrypt
+ *     bcrypt-strength: 10
+ *     hashing-threads: 4
+ *     queue-capacity: 64
+ * }</pre>
+ *
+ * @param encodingId     algorithm used to hash new passwords, either {@code bcrypt} or
+ *                       {@code pbkdf2}
+ * @param bcryptStrength log rounds of BCrypt, between 4 and 31
+ * @param hashingThreads number of threads hashing passwords, {@code 0} uses the number of
+ *                       available processors
+ * @param queueCapacity  number of hashing requests allowed to wait for a free thread
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@ConfigurationProperties(prefix = "app.password")
+public record PasswordProperties(
+        @DefaultValue("bcrypt") String encodingId,
+        @DefaultValue("10") int bcryptStrength,
+        @DefaultValue("0") int hashingThreads,
+        @DefaultValue("64") int queueCapacity
+) {
+
+    /**
+     * Get the effective number of hashing threads.
+     *
+     * @return number of hashing threads
+     */
+    public int effectiveHashingThreads() {
+        return hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
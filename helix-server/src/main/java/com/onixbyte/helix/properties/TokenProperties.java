@@ -1,6 +1,7 @@
 package com.onixbyte.helix.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 import java.time.Duration;
 
@@ -24,6 +25,13 @@ import java.time.Duration;
  *     issuer: "helix-server"
  *     secret: "your-256-bit-secret-key-here"
  *     valid-time: PT24H  # 24 hours
+ *     refresh-valid-time: P7D
+ *     verified-cache-size: 10000
+ *     self-contained: false
+ *     revocation-channel: "helix:token:revocation"
+ *     revocation-expected-insertions: 100000
+ *     revocation-reseed-interval: PT1M
+ *     authority-refresh-interval: PT5M
  * }</pre>
  * <p>
  * <strong>Security Considerations:</strong>
@@ -39,9 +47,28 @@ import java.time.Duration;
  * All properties are prefixed with {@code app.jwt} and are automatically bound
  * by Spring Boot's configuration property mechanism.
  *
- * @param issuer    name of the issuer
- * @param secret    secret to sign a token
- * @param validTime validity duration for JWT tokens
+ * @param issuer                       name of the issuer
+ * @param secret                       secret to sign a token
+ * @param validTime                    validity duration for JWT tokens
+ * @param refreshValidTime             validity duration of a refresh token family, counted from
+ *                                     the login that created it
+ * @param verifiedCacheSize            maximum number of verified tokens remembered so that
+ *                                     repeated requests with the same token skip signature
+ *                                     verification
+ * @param selfContained                whether to embed the user ID, department ID, status and
+ *                                     authorities in the token, so that requests can be
+ *                                     authenticated without looking up the user
+ * @param revocationChannel            Redis pub/sub channel on which revoked token IDs
+ *                                     are announced
+ * @param revocationExpectedInsertions number of tokens expected to be revoked within one token
+ *                                     validity period, used to size the in-memory
+ *                                     revocation filter
+ * @param revocationReseedInterval     interval at which the revocation filter is reseeded from
+ *                                     the revoked token IDs stored in Redis, which bounds how
+ *                                     long a missed revocation announcement goes unenforced
+ * @param authorityRefreshInterval     interval at which the authority registry is reloaded from
+ *                                     the database, which changes the authority version of new
+ *                                     self-contained tokens when authorities have changed
  * @author zihluwang
  * @see ConfigurationProperties
  * @see <a href="https://tools.ietf.org/html/rfc7519">RFC 7519 - JSON Web Token (JWT)</a>
@@ -52,6 +79,13 @@ import java.time.Duration;
 public record TokenProperties(
         String issuer,
         String secret,
-        Duration validTime
+        Duration validTime,
+        @DefaultValue("P7D") Duration refreshValidTime,
+        @DefaultValue("10000") long verifiedCacheSize,
+        @DefaultValue("false") boolean selfContained,
+        @DefaultValue("helix:token:revocation") String revocationChannel,
+        @DefaultValue("100000") long revocationExpectedInsertions,
+        @DefaultValue("PT1M") Duration revocationReseedInterval,
+        @DefaultValue("PT5M") Duration authorityRefreshInterval
 ) {
 }
@@ -16,4 +16,11 @@ public interface AuthorityRepository {
      * @return authorities
      */
     List<Authority> selectByUserId(@Param("userId") Long userId);
+
+    /**
+     * Select all authorities ordered by ID.
+     *
+     * @return authorities
+     */
+    List<Authority> selectAll();
 }
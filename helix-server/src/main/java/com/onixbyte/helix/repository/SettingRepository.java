@@ -0,0 +1,35 @@
+package com.onixbyte.helix.repository;
+
+import com.onixbyte.helix.domain.entity.Setting;
+import org.apache.ibatis.annotations.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SettingRepository {
+
+    /**
+     * Select setting by name.
+     *
+     * @param name setting name
+     * @return setting, or {@code null} if no setting has the given name
+     */
+    Setting selectOneByName(@Param("name") String name);
+
+    /**
+     * Select all settings.
+     *
+     * @return all settings
+     */
+    List<Setting> selectAll();
+
+    /**
+     * Update the current value of a setting.
+     *
+     * @param name  setting name
+     * @param value new value, {@code null} restores the default value
+     * @return number of affected rows
+     */
+    int updateValue(@Param("name") String name, @Param("value") String value);
+}
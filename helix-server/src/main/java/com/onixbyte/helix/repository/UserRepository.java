@@ -19,6 +19,21 @@ public interface UserRepository {
      */
     User selectByUsername(@Param("username") String username);
 
+    /**
+     * Select the most recently updated users.
+     *
+     * @param limit maximum number of users
+     * @return users, most recently updated first
+     */
+    List<User> selectRecentlyActive(@Param("limit") int limit);
+
+    /**
+     * Select usernames of all users.
+     *
+     * @return all usernames
+     */
+    List<String> selectAllUsernames();
+
     /**
      * Select all users paginated
      *
@@ -41,9 +56,33 @@ public interface UserRepository {
 
     int count(@Param("request") QueryUserRequest request);
 
+    /**
+     * Select users ordered by ID, continuing after the given ID. The query seeks on the index of
+     * {@code id} rather than skipping earlier rows, so it takes the same time for every page.
+     *
+     * @param lastId  ID of the last user of the previous page, {@code null} for the first page
+     * @param limit   maximum number of users
+     * @param request query conditions
+     * @return users with an ID greater than {@code lastId}, in ascending order of ID
+     */
+    List<User> selectAfter(
+            @Param("lastId") Long lastId,
+            @Param("limit") int limit,
+            @Param("request") QueryUserRequest request
+    );
+
     int save(@Param("user") User user);
 
     User selectById(@Param("id") Long id);
 
     int update(@Param("user") User user);
+
+    /**
+     * Replace the password hash of a user.
+     *
+     * @param id       user ID
+     * @param password new encoded password
+     * @return affected rows
+     */
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
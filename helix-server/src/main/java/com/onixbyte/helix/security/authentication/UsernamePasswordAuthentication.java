@@ -1,6 +1,7 @@
 package com.onixbyte.helix.security.authentication;
 
 import com.onixbyte.helix.domain.entity.User;
+import com.onixbyte.helix.security.authority.AuthoritySet;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,21 +14,23 @@ public class UsernamePasswordAuthentication implements Authentication, Credentia
     private boolean authenticated;
     private User user;
     private List<? extends GrantedAuthority> authorities;
+    private AuthoritySet authoritySet;
 
-    private UsernamePasswordAuthentication(String username, String password, boolean authenticated, User user, List<? extends GrantedAuthority> authorities) {
+    private UsernamePasswordAuthentication(String username, String password, boolean authenticated, User user, List<? extends GrantedAuthority> authorities, AuthoritySet authoritySet) {
         this.username = username;
         this.password = password;
         this.authenticated = authenticated;
         this.user = user;
         this.authorities = authorities;
+        this.authoritySet = authoritySet;
     }
 
     public static UsernamePasswordAuthentication unauthenticated(String username, String password) {
-        return new UsernamePasswordAuthentication(username, password, false, null, List.of());
+        return new UsernamePasswordAuthentication(username, password, false, null, List.of(), AuthoritySet.EMPTY);
     }
 
-    public static UsernamePasswordAuthentication authenticated(User user, List<? extends GrantedAuthority> authorities) {
-        return new UsernamePasswordAuthentication(user.getUsername(), null, true, user, authorities);
+    public static UsernamePasswordAuthentication authenticated(User user, List<? extends GrantedAuthority> authorities, AuthoritySet authoritySet) {
+        return new UsernamePasswordAuthentication(user.getUsername(), null, true, user, authorities, authoritySet);
     }
 
     @Override
@@ -77,4 +80,18 @@ public class UsernamePasswordAuthentication implements Authentication, Credentia
     public void setAuthorities(List<? extends GrantedAuthority> authorities) {
         this.authorities = authorities;
     }
+
+    /**
+     * Get the authorities of this authentication as a bitset, used by
+     * {@link com.onixbyte.helix.security.authorization.AuthoritySetAuthorizationManager}.
+     *
+     * @return the authority set
+     */
+    public AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+
+    public void setAuthoritySet(AuthoritySet authoritySet) {
+        this.authoritySet = authoritySet;
+    }
 }
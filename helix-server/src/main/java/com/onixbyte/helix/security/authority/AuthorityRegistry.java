@@ -0,0 +1,217 @@
+package com.onixbyte.helix.security.authority;
+
+import com.onixbyte.helix.repository.AuthorityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Assigns every authority code a stable bit position, so that a set of authorities can be carried
+ * as an {@link AuthoritySet}.
+ * <p>
+ * Bit positions follow the order of authority IDs in the {@code authorities} table, so adding an
+ * authority appends a new bit without moving existing ones. The registry also exposes a version
+ * derived from all IDs and codes. A token carries the version it was issued with, and an
+ * authority set whose version differs from the current one must not be trusted.
+ * <p>
+ * The registry is loaded on first use and reloaded every
+ * {@link com.onixbyte.helix.properties.TokenProperties#authorityRefreshInterval()}, since
+ * authorities are maintained in the database directly. Callers that meet a version or code the
+ * registry does not know can ask for an earlier reload with {@link #reloadIfOutdated()}, which
+ * queries the database at most once every ten seconds.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class AuthorityRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    /**
+     * Minimum time between two reloads requested through {@link #reloadIfOutdated()}, so that
+     * tokens carrying an old version cannot make every request query the database.
+     */
+    private static final long MINIMUM_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AuthorityRepository authorityRepository;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile long loadedAt;
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    /**
+     * Get the version of the current code-to-bit assignment.
+     *
+     * @return registry version
+     */
+    public String version() {
+        return snapshot().version();
+    }
+
+    /**
+     * Convert granted authorities to an authority set. Codes unknown to the registry are dropped.
+     *
+     * @param authorities granted authorities
+     * @return the authority set
+     */
+    public AuthoritySet toAuthoritySet(Collection<? extends GrantedAuthority> authorities) {
+        var current = snapshot();
+        for (var authority : authorities) {
+            if (!current.bits().containsKey(authority.getAuthority())) {
+                // the authority may have been added after the last reload
+                if (reloadIfOutdated()) {
+                    current = snapshot();
+                }
+                break;
+            }
+        }
+
+        var bits = new int[authorities.size()];
+        var count = 0;
+        for (var authority : authorities) {
+            var bit = current.bits().get(authority.getAuthority());
+            if (Objects.isNull(bit)) {
+                log.warn("Authority {} is not registered and is left out of the authority set.", authority.getAuthority());
+                continue;
+            }
+            bits[count++] = bit;
+        }
+        return AuthoritySet.of(Arrays.copyOf(bits, count));
+    }
+
+    /**
+     * Convert an authority set back to granted authorities.
+     *
+     * @param authoritySet the authority set
+     * @return granted authorities
+     */
+    public List<GrantedAuthority> toGrantedAuthorities(AuthoritySet authoritySet) {
+        var current = snapshot();
+        var grantedAuthorities = new ArrayList<GrantedAuthority>();
+        for (var bit : authoritySet.bits()) {
+            if (bit < current.authorities().size()) {
+                grantedAuthorities.add(current.authorities().get(bit));
+            }
+        }
+        return grantedAuthorities;
+    }
+
+    /**
+     * Get the bit position of the given authority code.
+     *
+     * @param code authority code
+     * @return bit position, or {@code -1} if the code is not registered
+     */
+    public int bitOf(String code) {
+        return snapshot().bits().getOrDefault(code, -1);
+    }
+
+    /**
+     * Reload the code-to-bit assignment from the database.
+     */
+    @Scheduled(
+            initialDelayString = "${app.jwt.authority-refresh-interval:PT5M}",
+            fixedDelayString = "${app.jwt.authority-refresh-interval:PT5M}"
+    )
+    public void reload() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Reload the code-to-bit assignment unless it has been loaded only moments ago.
+     *
+     * @return {@code true} if the version changed
+     */
+    public boolean reloadIfOutdated() {
+        if (System.nanoTime() - loadedAt < MINIMUM_RELOAD_INTERVAL_NANOS || !reloadLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (System.nanoTime() - loadedAt < MINIMUM_RELOAD_INTERVAL_NANOS) {
+                return false;
+            }
+            var previousVersion = Objects.nonNull(snapshot) ? snapshot.version() : null;
+            load();
+            return !Objects.equals(previousVersion, snapshot.version());
+        } catch (Exception e) {
+            // the current assignment stays in use, the next attempt waits for the interval as well
+            loadedAt = System.nanoTime();
+            log.error("Cannot reload authority registry.", e);
+            return false;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void load() {
+        var authorities = authorityRepository.selectAll();
+
+        var bits = new HashMap<String, Integer>();
+        var grantedAuthorities = new ArrayList<GrantedAuthority>(authorities.size());
+        var checksum = new CRC32();
+        for (var authority : authorities) {
+            bits.put(authority.getCode(), grantedAuthorities.size());
+            grantedAuthorities.add(authority.asGrantedAuthority());
+            checksum.update((authority.getId() + ":" + authority.getCode() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        var version = Long.toHexString(checksum.getValue());
+        snapshot = new Snapshot(version, Map.copyOf(bits), List.copyOf(grantedAuthorities));
+        loadedAt = System.nanoTime();
+        log.info("Authority registry loaded with {} authorities, version {}.", authorities.size(), version);
+    }
+
+    private Snapshot snapshot() {
+        var current = snapshot;
+        if (Objects.isNull(current)) {
+            reloadLock.lock();
+            try {
+                if (Objects.isNull(snapshot)) {
+                    load();
+                }
+                current = snapshot;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * An immutable code-to-bit assignment.
+     *
+     * @param version     version of this assignment
+     * @param bits        bit position of each authority code
+     * @param authorities granted authority of each bit position
+     */
+    private record Snapshot(
+            String version,
+            Map<String, Integer> bits,
+            List<GrantedAuthority> authorities
+    ) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.onixbyte.helix.security.authority;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * An immutable set of authorities, stored as a bitset whose bit positions are assigned by
+ * {@link AuthorityRegistry}.
+ * <p>
+ * The set can be written to and read from a compact base64url string, which is how authorities
+ * are carried inside a self-contained token.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public final class AuthoritySet {
+
+    /**
+     * An authority set without any authority.
+     */
+    public static final AuthoritySet EMPTY = new AuthoritySet(new long[0]);
+
+    private final long[] words;
+
+    private AuthoritySet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Create an authority set containing the given bits.
+     *
+     * @param bits bit positions of the contained authorities
+     * @return the authority set
+     */
+    public static AuthoritySet of(int... bits) {
+        var words = new long[0];
+        for (var bit : bits) {
+            var wordIndex = bit >>> 6;
+            if (wordIndex >= words.length) {
+                words = Arrays.copyOf(words, wordIndex + 1);
+            }
+            words[wordIndex] |= 1L << bit;
+        }
+        return new AuthoritySet(words);
+    }
+
+    /**
+     * Read an authority set from the string produced by {@link #encode()}.
+     *
+     * @param encoded the encoded authority set
+     * @return the authority set
+     * @throws IllegalArgumentException if the string is not valid base64url
+     */
+    public static AuthoritySet decode(String encoded) {
+        var bytes = Base64.getUrlDecoder().decode(encoded);
+        var words = new long[(bytes.length + 7) >>> 3];
+        for (var i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return new AuthoritySet(words);
+    }
+
+    /**
+     * Write this authority set as a base64url string without padding. Bytes are little-endian and
+     * trailing zero bytes are dropped, so the length depends only on the highest contained bit.
+     *
+     * @return the encoded authority set
+     */
+    public String encode() {
+        var bytes = new byte[words.length << 3];
+        var length = 0;
+        for (var i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+            if (bytes[i] != 0) {
+                length = i + 1;
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    /**
+     * Check whether the authority at the given bit is contained in this set.
+     *
+     * @param bit bit position of the authority
+     * @return {@code true} if the authority is contained
+     */
+    public boolean contains(int bit) {
+        var wordIndex = bit >>> 6;
+        return bit >= 0 && wordIndex < words.length && (words[wordIndex] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Get the bit positions of all contained authorities in ascending order.
+     *
+     * @return bit positions
+     */
+    public int[] bits() {
+        var bits = new int[Arrays.stream(words).mapToInt(Long::bitCount).sum()];
+        var index = 0;
+        for (var wordIndex = 0; wordIndex < words.length; wordIndex++) {
+            var word = words[wordIndex];
+            while (word != 0) {
+                bits[index++] = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return bits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof AuthoritySet that)) return false;
+        return Arrays.equals(trim(words), trim(that.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(trim(words));
+    }
+
+    @Override
+    public String toString() {
+        return "AuthoritySet" + Arrays.toString(bits());
+    }
+
+    private static long[] trim(long[] words) {
+        var length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+}
@@ -0,0 +1,164 @@
+package com.onixbyte.helix.security.authorization;
+
+import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Authorises invocations of methods annotated with {@link RequireAuthority} by testing bits of the
+ * caller's {@link com.onixbyte.helix.security.authority.AuthoritySet}.
+ * <p>
+ * The required codes of each method are resolved to bit positions on first invocation and kept
+ * until the {@link AuthorityRegistry} version changes, so a check costs a few bitset lookups
+ * instead of SpEL evaluation and a scan over the granted authorities. A required code the registry
+ * does not know, for example one added after its last reload, has no bit, so such methods are
+ * checked by comparing codes until the registry has been reloaded.
+ * <p>
+ * The registry may be supplied lazily, so that the manager can be created while bean post
+ * processors are still being registered without creating the registry and its repository early.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class AuthoritySetAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Supplier<AuthorityRegistry> authorityRegistry;
+    private final ConcurrentMap<Method, Requirement> requirements = new ConcurrentHashMap<>();
+
+    public AuthoritySetAuthorizationManager(AuthorityRegistry authorityRegistry) {
+        this(() -> authorityRegistry);
+    }
+
+    /**
+     * Create a manager that obtains the registry on the first authorisation.
+     *
+     * @param authorityRegistry supplier of the registry, called at most once
+     */
+    public AuthoritySetAuthorizationManager(Supplier<AuthorityRegistry> authorityRegistry) {
+        this.authorityRegistry = SingletonSupplier.of(authorityRegistry);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        var requirement = requirementOf(invocation);
+        if (Objects.isNull(requirement)) {
+            return null;
+        }
+
+        var _authentication = authentication.get();
+        if (Objects.isNull(_authentication) || !_authentication.isAuthenticated()) {
+            return DENIED;
+        }
+
+        if (requirement.resolved()
+                && _authentication instanceof UsernamePasswordAuthentication usernamePasswordAuthentication
+                && Objects.nonNull(usernamePasswordAuthentication.getAuthoritySet())) {
+            var authoritySet = usernamePasswordAuthentication.getAuthoritySet();
+            for (var bit : requirement.bits()) {
+                if (authoritySet.contains(bit)) {
+                    return GRANTED;
+                }
+            }
+            return DENIED;
+        }
+
+        // other authentication types carry no authority set, and unregistered codes have no bit
+        for (var grantedAuthority : _authentication.getAuthorities()) {
+            if (requirement.codes().contains(grantedAuthority.getAuthority())) {
+                return GRANTED;
+            }
+        }
+        return DENIED;
+    }
+
+    /**
+     * @deprecated use {@link #authorize(Supplier, MethodInvocation)} instead
+     */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        var result = authorize(authentication, invocation);
+        return Objects.isNull(result) ? null : new AuthorizationDecision(result.isGranted());
+    }
+
+    private Requirement requirementOf(MethodInvocation invocation) {
+        var method = invocation.getMethod();
+        var authorityRegistry = this.authorityRegistry.get();
+        var version = authorityRegistry.version();
+        var requirement = requirements.get(method);
+        if (Objects.isNull(requirement) || !Objects.equals(version, requirement.version())) {
+            requirement = resolve(invocation, version);
+            requirements.put(method, requirement);
+        }
+        if (!requirement.resolved() && authorityRegistry.reloadIfOutdated()) {
+            requirement = resolve(invocation, authorityRegistry.version());
+            requirements.put(method, requirement);
+        }
+        return requirement.codes().isEmpty() ? null : requirement;
+    }
+
+    private Requirement resolve(MethodInvocation invocation, String version) {
+        var targetClass = Objects.nonNull(invocation.getThis())
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        var method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        var annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequireAuthority.class);
+        if (Objects.isNull(annotation)) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequireAuthority.class);
+        }
+        if (Objects.isNull(annotation)) {
+            return new Requirement(version, Set.of(), new int[0]);
+        }
+
+        var codes = Arrays.stream(annotation.value()).collect(Collectors.toUnmodifiableSet());
+        var bits = codes.stream()
+                .mapToInt(authorityRegistry.get()::bitOf)
+                .filter((bit) -> bit >= 0)
+                .toArray();
+        return new Requirement(version, codes, bits);
+    }
+
+    /**
+     * Authorities required by a method.
+     *
+     * @param version registry version the bits were resolved with
+     * @param codes   required authority codes
+     * @param bits    bit positions of the registered codes among {@code codes}
+     */
+    private record Requirement(
+            String version,
+            Set<String> codes,
+            int[] bits
+    ) {
+
+        /**
+         * Check whether every required code has a bit position, so that testing the bits is
+         * equivalent to comparing the codes.
+         *
+         * @return {@code true} if all required codes are registered
+         */
+        boolean resolved() {
+            return bits.length == codes.size();
+        }
+    }
+}
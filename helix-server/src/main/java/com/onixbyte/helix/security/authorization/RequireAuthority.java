@@ -0,0 +1,33 @@
+package com.onixbyte.helix.security.authorization;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires the current user to hold at least one of the given authorities before the annotated
+ * method is invoked.
+ * <p>
+ * This is the counterpart of {@code @PreAuthorize("hasAnyAuthority(...)")} without SpEL. Authority
+ * codes are resolved to bit positions by
+ * {@link com.onixbyte.helix.security.authority.AuthorityRegistry} once per method, and each call
+ * is checked by {@link AuthoritySetAuthorizationManager} with bitset membership tests. When placed
+ * on a type, the annotation applies to every method that is not annotated itself.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RequireAuthority {
+
+    /**
+     * Authority codes, any of which grants access.
+     *
+     * @return authority codes
+     */
+    String[] value();
+}
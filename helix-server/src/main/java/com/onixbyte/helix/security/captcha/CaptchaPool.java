@@ -0,0 +1,187 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.helix.constant.CaptchaType;
+import com.onixbyte.helix.properties.CaptchaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of captchas rendered ahead of time by background workers.
+ * <p>
+ * Rendering and encoding a captcha image is the most expensive part of serving a captcha, so it is
+ * moved off the request path. Workers refill the pool whenever its depth falls below the low
+ * watermark and stop at the high watermark. Handing out a captcha is then a single poll, and a
+ * captcha is only rendered on the request thread when the pool is empty.
+ * <p>
+ * The pool holds captchas of a single {@link CaptchaType}. When a different type is requested,
+ * because the captcha type setting has changed, the pooled captchas are discarded and workers
+ * refill the pool with the new type.
+ * <p>
+ * The following meters are published:
+ * <ul>
+ *   <li>{@code captcha.pool.depth}: number of captchas ready in the pool</li>
+ *   <li>{@code captcha.pool.rendered}: captchas rendered by workers, its rate is the refill
+ *       rate</li>
+ *   <li>{@code captcha.pool.requests}: captchas handed out, tagged with {@code result} of
+ *       {@code hit} or {@code miss}</li>
+ * </ul>
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class CaptchaPool implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptchaPool.class);
+
+    private final CaptchaRenderer captchaRenderer;
+    private final CaptchaProperties.Pool poolProperties;
+    private final BlockingQueue<PreparedCaptcha> captchas;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final Condition refillRequired = refillLock.newCondition();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter renderedCounter;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private volatile CaptchaType pooledType = CaptchaType.JPEG;
+    private volatile boolean running;
+    private volatile boolean refilling = true;
+
+    public CaptchaPool(CaptchaRenderer captchaRenderer, CaptchaProperties captchaProperties, MeterRegistry meterRegistry) {
+        this.captchaRenderer = captchaRenderer;
+        this.poolProperties = captchaProperties.pool();
+        this.captchas = new ArrayBlockingQueue<>(Math.max(1, poolProperties.highWatermark()));
+
+        Gauge.builder("captcha.pool.depth", captchas, BlockingQueue::size)
+                .description("Number of pre-generated captchas ready to be served")
+                .register(meterRegistry);
+        this.renderedCounter = Counter.builder("captcha.pool.rendered")
+                .description("Number of captchas rendered by pool workers")
+                .register(meterRegistry);
+        this.hitCounter = Counter.builder("captcha.pool.requests")
+                .tag("result", "hit")
+                .description("Number of captchas served")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("captcha.pool.requests")
+                .tag("result", "miss")
+                .description("Number of captchas served")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a captcha of the given type from the pool, or render one if the pool is empty.
+     *
+     * @param type requested captcha type
+     * @return a captcha that has not been handed out before
+     */
+    public PreparedCaptcha take(CaptchaType type) {
+        var resolvedType = captchaRenderer.resolve(type);
+        if (pooledType != resolvedType) {
+            pooledType = resolvedType;
+            captchas.clear();
+        }
+
+        var captcha = captchas.poll();
+        if (captchas.size() < poolProperties.lowWatermark()) {
+            requestRefill();
+        }
+
+        // a worker may still hand in a captcha of the previous type right after a switch
+        if (Objects.nonNull(captcha) && captcha.type() == resolvedType) {
+            hitCounter.increment();
+            return captcha;
+        }
+
+        missCounter.increment();
+        return captchaRenderer.render(resolvedType);
+    }
+
+    private void requestRefill() {
+        if (refilling) {
+            return;
+        }
+
+        refillLock.lock();
+        try {
+            refilling = true;
+            refillRequired.signalAll();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private void refill() {
+        while (running) {
+            try {
+                refillLock.lock();
+                try {
+                    while (running && !refilling) {
+                        refillRequired.await();
+                    }
+                } finally {
+                    refillLock.unlock();
+                }
+
+                if (!running) {
+                    return;
+                }
+
+                if (!captchas.offer(captchaRenderer.render(pooledType)) || captchas.size() >= poolProperties.highWatermark()) {
+                    refilling = false;
+                }
+                renderedCounter.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Cannot render captcha for the pool.", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!poolProperties.enabled() || !captchaRenderer.isAvailable()) {
+            log.info("Captcha pool is disabled, captchas are rendered on demand.");
+            return;
+        }
+
+        running = true;
+        for (var i = 0; i < poolProperties.workers(); i++) {
+            var worker = new Thread(this::refill, "captcha-pool-" + (i + 1));
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+        captchas.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
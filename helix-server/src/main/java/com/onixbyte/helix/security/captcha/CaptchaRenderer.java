@@ -0,0 +1,115 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.captcha.Producer;
+import com.onixbyte.helix.constant.CaptchaType;
+import com.onixbyte.helix.exception.BizException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Renders captcha codes and images with the configured {@link Producer}.
+ * <p>
+ * {@link ImageIO#write} looks up and instantiates a new {@link ImageWriter} on every call. Captchas
+ * are rendered often enough for that to matter, so every thread keeps one writer per
+ * {@link CaptchaType} and resets it between images. Writers are not thread-safe, which is why they
+ * are never shared across threads.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class CaptchaRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptchaRenderer.class);
+
+    private final ThreadLocal<Map<CaptchaType, ImageWriter>> imageWriters =
+            ThreadLocal.withInitial(() -> new EnumMap<>(CaptchaType.class));
+
+    private final boolean webpSupported;
+
+    private Producer producer;
+
+    public CaptchaRenderer() {
+        // images are a few kilobytes, buffering them in a temporary file only adds disk I/O
+        ImageIO.setUseCache(false);
+        this.webpSupported = ImageIO.getImageWritersByFormatName(CaptchaType.WEBP.getFormat()).hasNext();
+        if (!webpSupported) {
+            log.info("No WebP image writer is registered, WebP captchas are encoded as PNG.");
+        }
+    }
+
+    @Autowired(required = false)
+    public void setProducer(Producer producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Check whether a {@link Producer} is available to render captchas.
+     *
+     * @return {@code true} if captchas can be rendered
+     */
+    public boolean isAvailable() {
+        return Objects.nonNull(producer);
+    }
+
+    /**
+     * Resolve the type a captcha of the requested type is actually encoded as.
+     *
+     * @param type requested captcha type
+     * @return {@link CaptchaType#PNG} if WebP is requested but unsupported, otherwise {@code type}
+     */
+    public CaptchaType resolve(CaptchaType type) {
+        return type == CaptchaType.WEBP && !webpSupported ? CaptchaType.PNG : type;
+    }
+
+    /**
+     * Render a new captcha code and its image.
+     *
+     * @param type requested captcha type
+     * @return the rendered captcha
+     */
+    public PreparedCaptcha render(CaptchaType type) {
+        var resolvedType = resolve(type);
+        var captchaCode = producer.createText();
+        var captchaImage = producer.createImage(captchaCode);
+        return new PreparedCaptcha(captchaCode, resolvedType, encode(captchaImage, resolvedType));
+    }
+
+    private byte[] encode(BufferedImage image, CaptchaType type) {
+        var writer = imageWriters.get().computeIfAbsent(type, this::createWriter);
+        try (var byteArrayOutputStream = new FastByteArrayOutputStream();
+             var imageOutputStream = new MemoryCacheImageOutputStream(byteArrayOutputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(image);
+            imageOutputStream.flush();
+            // release the stream so that the writer can be reused for the next image
+            writer.reset();
+            return byteArrayOutputStream.toByteArray();
+        } catch (IOException e) {
+            // a writer that failed midway may be left in an unusable state
+            imageWriters.get().remove(type);
+            writer.dispose();
+            throw new BizException("无法生成验证码图片。");
+        }
+    }
+
+    private ImageWriter createWriter(CaptchaType type) {
+        var writers = ImageIO.getImageWritersByFormatName(type.getFormat());
+        if (!writers.hasNext()) {
+            throw new BizException("无法生成验证码图片。");
+        }
+        return writers.next();
+    }
+}
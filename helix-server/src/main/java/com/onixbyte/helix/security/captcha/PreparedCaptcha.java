@@ -0,0 +1,19 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.helix.constant.CaptchaType;
+
+/**
+ * A rendered captcha that has not been handed out yet.
+ *
+ * @param code  the captcha code
+ * @param type  the type the image is actually encoded as
+ * @param image the encoded captcha image
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public record PreparedCaptcha(
+        String code,
+        CaptchaType type,
+        byte[] image
+) {
+}
@@ -0,0 +1,76 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.helix.manager.LoginFailureManager;
+import com.onixbyte.helix.properties.CaptchaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Derives the difficulty of proof-of-work challenges from the current login failure rate.
+ * <p>
+ * The difficulty is the minimum difficulty plus one bit for each doubling of failed logins per
+ * minute beyond {@link CaptchaProperties.ProofOfWork#failuresPerStep()}, capped at the maximum
+ * difficulty. Every extra bit doubles the expected work of a client, so the cost of a login flood
+ * grows with the flood itself while legitimate users only pay the minimum in quiet times.
+ * <p>
+ * Challenges are issued to anonymous clients, so the failure count is read from Redis at most
+ * once every five seconds and reused in between.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class ProofOfWorkDifficulty {
+
+    private static final Logger log = LoggerFactory.getLogger(ProofOfWorkDifficulty.class);
+
+    private static final long REFRESH_INTERVAL_NANOS = 5_000_000_000L;
+
+    private final LoginFailureManager loginFailureManager;
+    private final CaptchaProperties.ProofOfWork proofOfWorkProperties;
+
+    private volatile Snapshot snapshot;
+
+    public ProofOfWorkDifficulty(LoginFailureManager loginFailureManager, CaptchaProperties captchaProperties) {
+        this.loginFailureManager = loginFailureManager;
+        this.proofOfWorkProperties = captchaProperties.proofOfWork();
+    }
+
+    /**
+     * Get the difficulty that new challenges should be issued with.
+     *
+     * @return required number of leading zero bits
+     */
+    public int current() {
+        var current = snapshot;
+        var now = System.nanoTime();
+        if (Objects.nonNull(current) && now - current.refreshAt() < 0) {
+            return current.difficulty();
+        }
+
+        var difficulty = Objects.nonNull(current) ? current.difficulty() : proofOfWorkProperties.minDifficulty();
+        try {
+            difficulty = difficultyOf(loginFailureManager.countRecentFailures());
+        } catch (Exception e) {
+            log.error("Cannot read the login failure rate, keeping proof-of-work difficulty at {}.", difficulty, e);
+        }
+        snapshot = new Snapshot(difficulty, now + REFRESH_INTERVAL_NANOS);
+        return difficulty;
+    }
+
+    private int difficultyOf(long failures) {
+        var steps = failures / Math.max(1, proofOfWorkProperties.failuresPerStep());
+        // one bit for each doubling: 1 step -> 1 bit, 2-3 steps -> 2 bits, 4-7 steps -> 3 bits ...
+        var extraBits = 64 - Long.numberOfLeadingZeros(steps);
+        return Math.min(proofOfWorkProperties.maxDifficulty(), proofOfWorkProperties.minDifficulty() + extraBits);
+    }
+
+    private record Snapshot(
+            int difficulty,
+            long refreshAt
+    ) {
+    }
+}
@@ -0,0 +1,277 @@
+package com.onixbyte.helix.security.captcha;
+
+import com.onixbyte.helix.client.RedisClient;
+import com.onixbyte.helix.common.bloom.RotatingBloomFilter;
+import com.onixbyte.helix.exception.BizException;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import com.onixbyte.helix.properties.CaptchaProperties;
+import com.onixbyte.helix.properties.TokenProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues and verifies captcha challenges that carry their own answer, so that neither issuing nor
+ * answering a captcha needs Redis.
+ * <p>
+ * A challenge has the form {@code <payload>.<signature>}, where the payload holds the challenge
+ * kind, a random challenge ID, the expiry time and the kind-specific data, and the signature is an
+ * HMAC-SHA256 of the payload. Two kinds of challenges are issued:
+ * <ul>
+ *   <li>captcha challenges, whose data is a keyed hash of the answer salted with the challenge
+ *       ID, so the client cannot derive the answer from the challenge</li>
+ *   <li>proof-of-work challenges, whose data is the number of leading zero bits the client has to
+ *       find a nonce for</li>
+ * </ul>
+ * <p>
+ * Every challenge can be answered once. Consumed challenge IDs are kept in a
+ * {@link RotatingBloomFilter} that remembers them for at least one validity period, and are
+ * announced to other nodes on the consumed channel. Replication is asynchronous, so a challenge
+ * may be replayed on another node within the pub/sub delivery delay, which is short compared with
+ * the time needed to solve a captcha.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class SignedCaptchaManager implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SignedCaptchaManager.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final String KIND_CAPTCHA = "c";
+
+    private static final String KIND_PROOF_OF_WORK = "p";
+
+    /**
+     * Upper bound of the nonce length, so that checking a nonce always costs a single short hash.
+     */
+    private static final int MAX_NONCE_LENGTH = 64;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RedisClient redisClient;
+    private final CaptchaProperties.Signed signedProperties;
+    private final SecretKeySpec key;
+    private final RotatingBloomFilter consumedChallengeIds;
+    private final ReentrantLock consumeLock = new ReentrantLock();
+
+    public SignedCaptchaManager(
+            RedisClient redisClient,
+            CaptchaProperties captchaProperties,
+            TokenProperties tokenProperties,
+            RedisMessageListenerContainer redisMessageListenerContainer
+    ) {
+        this.redisClient = redisClient;
+        this.signedProperties = captchaProperties.signed();
+        this.key = buildKey(signedProperties.secret(), tokenProperties.secret());
+        this.consumedChallengeIds = new RotatingBloomFilter(signedProperties.expectedInsertions(), 0.0001D,
+                signedProperties.validTime());
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(signedProperties.consumedChannel()));
+    }
+
+    /**
+     * Check whether the given captcha identifier is a signed challenge rather than the ID of a
+     * captcha stored in Redis.
+     *
+     * @param uuid captcha identifier presented by the client
+     * @return {@code true} if it has the form of a signed challenge
+     */
+    public boolean isChallenge(String uuid) {
+        return Objects.nonNull(uuid) && uuid.indexOf('.') > 0;
+    }
+
+    /**
+     * Seal the answer of a captcha into a new challenge.
+     *
+     * @param captchaCode the captcha code
+     * @return the challenge
+     */
+    public String seal(String captchaCode) {
+        var challengeId = generateChallengeId();
+        return seal(KIND_CAPTCHA, challengeId, hashAnswer(challengeId, captchaCode));
+    }
+
+    /**
+     * Issue a new proof-of-work challenge.
+     * <p>
+     * The client answers with a nonce such that the SHA-256 digest of
+     * {@code <challenge>:<nonce>} starts with at least {@code difficulty} zero bits.
+     *
+     * @param difficulty required number of leading zero bits
+     * @return the challenge
+     */
+    public String sealProofOfWork(int difficulty) {
+        return seal(KIND_PROOF_OF_WORK, generateChallengeId(), String.valueOf(difficulty));
+    }
+
+    /**
+     * Verify the answer to a challenge and consume the challenge.
+     * <p>
+     * A captcha challenge is consumed whether or not the answer is correct, so that every
+     * challenge allows a single guess. A proof-of-work challenge is only consumed by a valid
+     * nonce, since checking a nonce costs a single hash while finding one is the expensive part.
+     *
+     * @param challenge the challenge presented by the client
+     * @param answer    the captcha code entered by the user, or the proof-of-work nonce
+     * @throws BizException if the challenge is invalid, expired or consumed, or the answer is wrong
+     */
+    public void verify(String challenge, String answer) {
+        var separator = challenge.indexOf('.');
+        var payload = challenge.substring(0, separator);
+        String[] fields;
+        long expiresAt;
+        try {
+            var signature = Base64.getUrlDecoder().decode(challenge.substring(separator + 1));
+            if (!MessageDigest.isEqual(mac(payload), signature)) {
+                throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
+            }
+            fields = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8).split(":");
+            expiresAt = fields.length == 4 ? Long.parseLong(fields[2]) : 0L;
+        } catch (IllegalArgumentException e) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
+        }
+
+        if (Instant.now().getEpochSecond() > expiresAt) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "验证码已过期");
+        }
+
+        var kind = fields[0];
+        var challengeId = fields[1];
+        if (KIND_PROOF_OF_WORK.equals(kind)) {
+            if (!isProofOfWork(challenge, answer, Integer.parseInt(fields[3]))) {
+                throw new BizException(HttpStatus.BAD_REQUEST, "验证码错误");
+            }
+            if (!consume(challengeId)) {
+                throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
+            }
+            return;
+        }
+
+        if (!consume(challengeId)) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
+        }
+
+        if (Objects.isNull(answer) || !MessageDigest.isEqual(
+                hashAnswer(challengeId, answer).getBytes(StandardCharsets.UTF_8),
+                fields[3].getBytes(StandardCharsets.UTF_8))) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "验证码错误");
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(JacksonSerialiser.INSTANCE.deserialize(message.getBody()) instanceof String challengeId)) {
+            log.warn("Unrecognised message received on channel {}.", signedProperties.consumedChannel());
+            return;
+        }
+        consumedChallengeIds.put(challengeId);
+    }
+
+    private boolean consume(String challengeId) {
+        consumeLock.lock();
+        try {
+            if (consumedChallengeIds.mightContain(challengeId)) {
+                return false;
+            }
+            consumedChallengeIds.put(challengeId);
+        } finally {
+            consumeLock.unlock();
+        }
+
+        try {
+            redisClient.publish(signedProperties.consumedChannel(), challengeId);
+        } catch (Exception e) {
+            // the challenge stays consumed on this node and expires within minutes anyway
+            log.error("Cannot publish consumption of captcha challenge {}.", challengeId, e);
+        }
+        return true;
+    }
+
+    private String seal(String kind, String challengeId, String data) {
+        var expiresAt = Instant.now().plus(signedProperties.validTime()).getEpochSecond();
+        var payload = encode((kind + ":" + challengeId + ":" + expiresAt + ":" + data)
+                .getBytes(StandardCharsets.UTF_8));
+        return payload + "." + encode(mac(payload));
+    }
+
+    private String generateChallengeId() {
+        var idBytes = new byte[16];
+        RANDOM.nextBytes(idBytes);
+        return encode(idBytes);
+    }
+
+    private boolean isProofOfWork(String challenge, String nonce, int difficulty) {
+        if (Objects.isNull(nonce) || nonce.isEmpty() || nonce.length() > MAX_NONCE_LENGTH) {
+            return false;
+        }
+
+        try {
+            var hash = MessageDigest.getInstance("SHA-256")
+                    .digest((challenge + ":" + nonce).getBytes(StandardCharsets.UTF_8));
+            var zeroBits = 0;
+            for (var b : hash) {
+                if (b != 0) {
+                    zeroBits += Integer.numberOfLeadingZeros(b & 0xFF) - 24;
+                    break;
+                }
+                zeroBits += 8;
+            }
+            return zeroBits >= difficulty;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+    }
+
+    private String hashAnswer(String challengeId, String answer) {
+        return encode(mac("answer:" + challengeId + ":" + answer.strip().toLowerCase(Locale.ROOT)));
+    }
+
+    private byte[] mac(String content) {
+        try {
+            var mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not supported by this JVM.", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static SecretKeySpec buildKey(String secret, String tokenSecret) {
+        if (Objects.nonNull(secret) && !secret.isBlank()) {
+            return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        }
+
+        // derive a separate key from the token secret, so that a challenge can never pass as a token
+        try {
+            var mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return new SecretKeySpec(mac.doFinal("helix-captcha".getBytes(StandardCharsets.UTF_8)), HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not supported by this JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.onixbyte.helix.security.password;
+
+import com.onixbyte.helix.exception.BizException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing on a fixed number of dedicated threads.
+ * <p>
+ * Password hashes are deliberately expensive, so hashing on the request thread lets a burst of
+ * logins occupy every request thread and starve all other endpoints. This executor caps the CPU
+ * spent on hashing at a fixed number of threads and a bounded queue. When both are full, callers
+ * are rejected at once with {@code 503 Service Unavailable} instead of waiting.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class PasswordHashingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Create a password hashing executor.
+     *
+     * @param passwordEncoder the encoder performing the hashing
+     * @param threads         number of hashing threads
+     * @param queueCapacity   number of hashing requests allowed to wait for a free thread
+     */
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, int threads, int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Hash a raw password.
+     *
+     * @param rawPassword the raw password
+     * @return the encoded password
+     * @throws BizException with {@code 503} if the executor is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verify a raw password against an encoded password, and re-hash it when the encoded password
+     * does not use the current algorithm and cost.
+     *
+     * @param rawPassword     the raw password
+     * @param encodedPassword the stored encoded password
+     * @return result of the verification
+     * @throws BizException with {@code 503} if the executor is saturated
+     */
+    public Verification verify(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> {
+            if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                return new Verification(false, null);
+            }
+
+            var upgradedPassword = passwordEncoder.upgradeEncoding(encodedPassword)
+                    ? passwordEncoder.encode(rawPassword)
+                    : null;
+            return new Verification(true, upgradedPassword);
+        });
+    }
+
+    /**
+     * Get the underlying thread pool, e.g. for metrics.
+     *
+     * @return the thread pool
+     */
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Stop accepting hashing requests and let queued requests finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing is saturated, {} requests are queued.", executor.getQueue().size());
+            throw new BizException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后再试。");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后再试。");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Result of a password verification.
+     *
+     * @param matched          whether the raw password matches
+     * @param upgradedPassword new encoded password if the stored one should be replaced,
+     *                         {@code null} otherwise
+     */
+    public record Verification(
+            boolean matched,
+            String upgradedPassword
+    ) {
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "password-hashing-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -5,13 +5,14 @@ import com.onixbyte.helix.exception.BizException;
 import com.onixbyte.helix.manager.AuthorityManager;
 import com.onixbyte.helix.manager.UserManager;
 import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import com.onixbyte.helix.security.password.PasswordHashingExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
@@ -21,13 +22,15 @@ public class UsernamePasswordAuthenticationProvider implements AuthenticationPro
 
     private static final Logger log = LoggerFactory.getLogger(UsernamePasswordAuthenticationProvider.class);
     private final UserManager userManager;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final AuthorityManager authorityManager;
+    private final AuthorityRegistry authorityRegistry;
 
-    public UsernamePasswordAuthenticationProvider(UserManager userManager, PasswordEncoder passwordEncoder, AuthorityManager authorityManager) {
+    public UsernamePasswordAuthenticationProvider(UserManager userManager, PasswordHashingExecutor passwordHashingExecutor, AuthorityManager authorityManager, AuthorityRegistry authorityRegistry) {
         this.userManager = userManager;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.authorityManager = authorityManager;
+        this.authorityRegistry = authorityRegistry;
     }
 
     @Override
@@ -44,13 +47,23 @@ public class UsernamePasswordAuthenticationProvider implements AuthenticationPro
         }
 
         // validate password
-        if (!passwordEncoder.matches(usernamePasswordAuthentication.getCredentials(), user.getPassword())) {
+        var verification = passwordHashingExecutor.verify(usernamePasswordAuthentication.getCredentials(), user.getPassword());
+        if (!verification.matched()) {
             log.error("User {} is trying to authenticate but password is incorrect.", usernamePasswordAuthentication.getPrincipal());
             throw new BizException(HttpStatus.UNAUTHORIZED, "用户名或密码错误。");
         }
 
-        // erase credentials
-        user.setPassword(null);
+        // replace outdated password hash
+        if (Objects.nonNull(verification.upgradedPassword())) {
+            try {
+                userManager.updatePassword(user.getId(), user.getUsername(), verification.upgradedPassword());
+            } catch (Exception e) {
+                log.error("Cannot upgrade password hash of user {}.", user.getUsername(), e);
+            }
+        }
+
+        // erase credentials, the cached user is shared so only a copy may be changed
+        user = user.withoutPassword();
         usernamePasswordAuthentication.eraseCredentials();
 
         // get authorities
@@ -63,6 +76,7 @@ public class UsernamePasswordAuthenticationProvider implements AuthenticationPro
         usernamePasswordAuthentication.setAuthenticated(true);
         usernamePasswordAuthentication.setDetails(user);
         usernamePasswordAuthentication.setAuthorities(authorities);
+        usernamePasswordAuthentication.setAuthoritySet(authorityRegistry.toAuthoritySet(authorities));
 
         return usernamePasswordAuthentication;
     }
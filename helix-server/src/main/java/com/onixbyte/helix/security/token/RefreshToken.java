@@ -0,0 +1,16 @@
+package com.onixbyte.helix.security.token;
+
+/**
+ * Redis record of an issued refresh token. The token itself is never stored, only its digest
+ * is used as the key of this record.
+ *
+ * @param username owner of the refresh token
+ * @param familyId ID shared by all refresh tokens rotated from the same login
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public record RefreshToken(
+        String username,
+        String familyId
+) {
+}
@@ -0,0 +1,137 @@
+package com.onixbyte.helix.security.token;
+
+import com.onixbyte.helix.client.RedisClient;
+import com.onixbyte.helix.exception.BizException;
+import com.onixbyte.helix.properties.TokenProperties;
+import com.onixbyte.helix.utils.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens, so that clients can renew their access token without
+ * logging in again.
+ * <p>
+ * Every login starts a token family that lives for {@link TokenProperties#refreshValidTime()}.
+ * Each refresh token can be used exactly once, and using it issues the next token of the same
+ * family. Redis only holds SHA-256 digests of refresh tokens:
+ * <ul>
+ *   <li>{@code refresh-token::<digest>} holds the {@link RefreshToken} record</li>
+ *   <li>{@code refresh-token-used::<digest>} marks a token that has already been rotated</li>
+ *   <li>{@code refresh-token-family::<familyId>} exists as long as the family is valid</li>
+ * </ul>
+ * Presenting a token that has already been used means that it has leaked, so the whole family is
+ * revoked and its owner has to log in again. Logging out revokes the family as well, which is why
+ * access tokens carry the ID of the family they were issued with.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class RefreshTokenManager {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenManager.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RedisClient redisClient;
+    private final TokenProperties tokenProperties;
+
+    public RefreshTokenManager(RedisClient redisClient, TokenProperties tokenProperties) {
+        this.redisClient = redisClient;
+        this.tokenProperties = tokenProperties;
+    }
+
+    /**
+     * Start a new token family for the given user and issue its first refresh token.
+     *
+     * @param username owner of the refresh token
+     * @return the owner, the family and the refresh token
+     */
+    public Grant issue(String username) {
+        var familyId = UUID.randomUUID().toString();
+        var validTime = tokenProperties.refreshValidTime();
+        redisClient.set(buildFamilyKey(familyId), username, validTime);
+        return new Grant(username, familyId, issue(new RefreshToken(username, familyId), validTime));
+    }
+
+    /**
+     * Use a refresh token and issue the next token of its family.
+     *
+     * @param refreshToken the refresh token presented by the client
+     * @return the owner, the family and the next refresh token
+     * @throws BizException if the token is unknown, expired, revoked or has already been used
+     */
+    public Grant rotate(String refreshToken) {
+        var digest = HashUtil.sha256(refreshToken);
+        var record = redisClient.get(buildCacheKey(digest), RefreshToken.class);
+        if (Objects.isNull(record)) {
+            throw new BizException(HttpStatus.UNAUTHORIZED, "刷新令牌无效或已过期");
+        }
+
+        var familyKey = buildFamilyKey(record.familyId());
+        var remaining = redisClient.getExpire(familyKey);
+        // a family about to expire cannot be written with its remaining time, which must be positive
+        if (Objects.isNull(remaining) || remaining.isZero() || remaining.isNegative()) {
+            throw new BizException(HttpStatus.UNAUTHORIZED, "刷新令牌无效或已过期");
+        }
+
+        if (!redisClient.setIfAbsent(buildUsedKey(digest), true, remaining)) {
+            redisClient.delete(familyKey);
+            log.warn("Refresh token of user {} is reused, token family {} is revoked.", record.username(), record.familyId());
+            throw new BizException(HttpStatus.UNAUTHORIZED, "刷新令牌已被使用，请重新登录");
+        }
+
+        return new Grant(record.username(), record.familyId(), issue(record, remaining));
+    }
+
+    /**
+     * Revoke a token family, so that none of its refresh tokens can be used any more.
+     *
+     * @param familyId ID of the token family
+     */
+    public void revokeFamily(String familyId) {
+        redisClient.delete(buildFamilyKey(familyId));
+    }
+
+    private String issue(RefreshToken record, Duration validTime) {
+        var bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        var refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        redisClient.set(buildCacheKey(HashUtil.sha256(refreshToken)), record, validTime);
+        return refreshToken;
+    }
+
+    private String buildCacheKey(String digest) {
+        return "refresh-token::" + digest;
+    }
+
+    private String buildUsedKey(String digest) {
+        return "refresh-token-used::" + digest;
+    }
+
+    private String buildFamilyKey(String familyId) {
+        return "refresh-token-family::" + familyId;
+    }
+
+    /**
+     * Result of issuing or rotating a refresh token.
+     *
+     * @param username     owner of the refresh token
+     * @param familyId     ID of the token family
+     * @param refreshToken the issued refresh token
+     */
+    public record Grant(
+            String username,
+            String familyId,
+            String refreshToken
+    ) {
+    }
+}
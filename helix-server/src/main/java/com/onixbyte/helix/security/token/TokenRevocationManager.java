@@ -0,0 +1,142 @@
+package com.onixbyte.helix.security.token;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.onixbyte.helix.client.RedisClient;
+import com.onixbyte.helix.common.bloom.RotatingBloomFilter;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import com.onixbyte.helix.properties.TokenProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Revokes tokens before they expire, identified by their {@code jti} claim.
+ * <p>
+ * A revoked token ID is stored in Redis under {@code revoked-token::<jti>} until the token would
+ * have expired anyway, and announced on the revocation channel. Every node mirrors revoked IDs into
+ * an in-memory {@link RotatingBloomFilter}, so {@link #isRevoked(String)} only asks Redis when the
+ * filter reports a possible match, and tokens that were never revoked are checked without any
+ * network round trip.
+ * <p>
+ * On startup the filter is seeded from the IDs already stored in Redis, and it is reseeded the same
+ * way every {@link TokenProperties#revocationReseedInterval()}, so a revocation whose announcement
+ * this node missed, for example while its subscription was reconnecting, is enforced after that
+ * interval at the latest. Its generations rotate once per token validity period, which is the
+ * longest time a revoked ID needs to be remembered.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class TokenRevocationManager implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationManager.class);
+
+    private static final String KEY_PREFIX = "revoked-token::";
+
+    private final RedisClient redisClient;
+    private final TokenProperties tokenProperties;
+    private final RotatingBloomFilter revokedTokenIds;
+
+    public TokenRevocationManager(
+            RedisClient redisClient,
+            TokenProperties tokenProperties,
+            RedisMessageListenerContainer redisMessageListenerContainer
+    ) {
+        this.redisClient = redisClient;
+        this.tokenProperties = tokenProperties;
+        this.revokedTokenIds = new RotatingBloomFilter(tokenProperties.revocationExpectedInsertions(), 0.001D,
+                tokenProperties.validTime());
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(tokenProperties.revocationChannel()));
+    }
+
+    /**
+     * Revoke the given token until it expires.
+     *
+     * @param token the verified token
+     */
+    public void revoke(DecodedJWT token) {
+        var tokenId = token.getId();
+        if (Objects.isNull(tokenId)) {
+            log.warn("Token of user {} has no ID and cannot be revoked.", token.getSubject());
+            return;
+        }
+
+        var remaining = Duration.between(Instant.now(), token.getExpiresAtAsInstant());
+        if (remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+
+        redisClient.set(buildCacheKey(tokenId), true, remaining);
+        revokedTokenIds.put(tokenId);
+        try {
+            redisClient.publish(tokenProperties.revocationChannel(), tokenId);
+        } catch (Exception e) {
+            // other nodes pick the revocation up from Redis on their next reseed
+            log.error("Cannot publish revocation of token {}.", tokenId, e);
+        }
+    }
+
+    /**
+     * Check whether the token with the given ID has been revoked.
+     *
+     * @param tokenId value of the {@code jti} claim, may be {@code null} for tokens without an ID
+     * @return {@code true} if the token has been revoked
+     */
+    public boolean isRevoked(String tokenId) {
+        if (Objects.isNull(tokenId) || !revokedTokenIds.mightContain(tokenId)) {
+            return false;
+        }
+        return Objects.nonNull(redisClient.get(buildCacheKey(tokenId)));
+    }
+
+    /**
+     * Seed the filter with the revocations stored in Redis before this node started.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialise() {
+        loadRevokedTokenIds();
+    }
+
+    /**
+     * Add every revocation stored in Redis to the filter, including those whose announcement was
+     * missed.
+     */
+    @Scheduled(
+            initialDelayString = "${app.jwt.revocation-reseed-interval:PT1M}",
+            fixedDelayString = "${app.jwt.revocation-reseed-interval:PT1M}"
+    )
+    public void loadRevokedTokenIds() {
+        try {
+            var keys = redisClient.scan(KEY_PREFIX + "*");
+            keys.forEach((key) -> revokedTokenIds.put(key.substring(KEY_PREFIX.length())));
+            log.debug("Loaded {} revoked token IDs.", keys.size());
+        } catch (Exception e) {
+            log.error("Cannot load revoked token IDs, missed revocations are not enforced until the next attempt.", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!(JacksonSerialiser.INSTANCE.deserialize(message.getBody()) instanceof String tokenId)) {
+            log.warn("Unrecognised message received on channel {}.", tokenProperties.revocationChannel());
+            return;
+        }
+        revokedTokenIds.put(tokenId);
+    }
+
+    private String buildCacheKey(String tokenId) {
+        return KEY_PREFIX + tokenId;
+    }
+}
@@ -0,0 +1,94 @@
+package com.onixbyte.helix.security.token;
+
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.onixbyte.helix.properties.TokenProperties;
+import com.onixbyte.helix.utils.HashUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Verifies JSON Web Tokens and remembers the verified result until the token expires.
+ * <p>
+ * A browser session sends the same token with every request, so once a token has passed
+ * signature and claim verification, later requests with that token are answered from memory
+ * without running HMAC verification or JSON decoding again. Entries are keyed by a SHA-256 digest
+ * of the token rather than the token itself, and each entry is dropped exactly when the token's
+ * {@code exp} claim is reached.
+ * <p>
+ * Hit and miss counts are published to Micrometer under the cache name {@code verified-token}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "verified-token";
+
+    private final JWTVerifier jwtVerifier;
+    private final Cache<String, DecodedJWT> verifiedTokens;
+
+    public VerifiedTokenCache(JWTVerifier jwtVerifier, TokenProperties tokenProperties, MeterRegistry meterRegistry) {
+        this.jwtVerifier = jwtVerifier;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenProperties.verifiedCacheSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+    }
+
+    /**
+     * Verify the given token, using the remembered result if the token has been verified before.
+     *
+     * @param token the raw token without the {@code Bearer} prefix
+     * @return the decoded token
+     * @throws JWTVerificationException if the token is not valid
+     */
+    public DecodedJWT verify(String token) {
+        var tokenDigest = HashUtil.sha256(token);
+        var decodedToken = verifiedTokens.getIfPresent(tokenDigest);
+        if (Objects.nonNull(decodedToken)) {
+            return decodedToken;
+        }
+
+        decodedToken = jwtVerifier.verify(token);
+        verifiedTokens.put(tokenDigest, decodedToken);
+        return decodedToken;
+    }
+
+    /**
+     * Expires every entry at the {@code exp} claim of its token.
+     */
+    private static class TokenExpiry implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String key, DecodedJWT value, long currentTime) {
+            var expiresAt = value.getExpiresAtAsInstant();
+            if (Objects.isNull(expiresAt)) {
+                return 0L;
+            }
+            return Math.max(Duration.between(Instant.now(), expiresAt).toNanos(), 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, DecodedJWT value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, DecodedJWT value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
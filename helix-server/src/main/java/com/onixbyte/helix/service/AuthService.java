@@ -1,17 +1,29 @@
 package com.onixbyte.helix.service;
 
 import com.onixbyte.helix.client.TokenClient;
+import com.onixbyte.helix.domain.entity.Authority;
+import com.onixbyte.helix.domain.web.request.RefreshTokenRequest;
 import com.onixbyte.helix.domain.web.request.UsernamePasswordLoginRequest;
 import com.onixbyte.helix.domain.web.response.LoginSuccessResponse;
 import com.onixbyte.helix.exception.BizException;
 import com.onixbyte.helix.manager.AuthSettingManager;
+import com.onixbyte.helix.manager.AuthorityManager;
 import com.onixbyte.helix.manager.CaptchaManager;
 import com.onixbyte.helix.manager.CaptchaSettingManager;
+import com.onixbyte.helix.manager.LoginFailureManager;
+import com.onixbyte.helix.manager.UserManager;
 import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.authority.AuthorityRegistry;
+import com.onixbyte.helix.security.captcha.SignedCaptchaManager;
+import com.onixbyte.helix.security.token.RefreshTokenManager;
+import com.onixbyte.helix.security.token.TokenRevocationManager;
+import com.onixbyte.helix.security.token.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Objects;
@@ -26,37 +38,136 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final TokenClient tokenClient;
     private final AuthSettingManager authSettingManager;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationManager tokenRevocationManager;
+    private final RefreshTokenManager refreshTokenManager;
+    private final UserManager userManager;
+    private final AuthorityManager authorityManager;
+    private final AuthorityRegistry authorityRegistry;
+    private final SignedCaptchaManager signedCaptchaManager;
+    private final LoginFailureManager loginFailureManager;
 
-    public AuthService(CaptchaManager captchaManager, CaptchaSettingManager captchaSettingManager, AuthenticationManager authenticationManager, TokenClient tokenClient, AuthSettingManager authSettingManager) {
+    public AuthService(CaptchaManager captchaManager, CaptchaSettingManager captchaSettingManager, AuthenticationManager authenticationManager, TokenClient tokenClient, AuthSettingManager authSettingManager, VerifiedTokenCache verifiedTokenCache, TokenRevocationManager tokenRevocationManager, RefreshTokenManager refreshTokenManager, UserManager userManager, AuthorityManager authorityManager, AuthorityRegistry authorityRegistry, SignedCaptchaManager signedCaptchaManager, LoginFailureManager loginFailureManager) {
         this.captchaManager = captchaManager;
         this.captchaSettingManager = captchaSettingManager;
         this.authenticationManager = authenticationManager;
         this.tokenClient = tokenClient;
         this.authSettingManager = authSettingManager;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationManager = tokenRevocationManager;
+        this.refreshTokenManager = refreshTokenManager;
+        this.userManager = userManager;
+        this.authorityManager = authorityManager;
+        this.authorityRegistry = authorityRegistry;
+        this.signedCaptchaManager = signedCaptchaManager;
+        this.loginFailureManager = loginFailureManager;
     }
 
     public LoginSuccessResponse login(UsernamePasswordLoginRequest request) {
-        if (captchaSettingManager.isCaptchaEnabled()) {
-            var uuid = request.uuid();
-            var rawCaptcha = captchaManager.getCaptcha(uuid);
-
-            if (Objects.isNull(rawCaptcha) || rawCaptcha.isBlank()) {
-                throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
-            }
-            if (!rawCaptcha.equalsIgnoreCase(request.captcha())) {
-                throw new BizException(HttpStatus.BAD_REQUEST, "验证码错误");
+        Authentication _authentication;
+        try {
+            if (captchaSettingManager.isCaptchaEnabled()) {
+                verifyCaptcha(request.uuid(), request.captcha());
             }
+
+            _authentication = authenticationManager.authenticate(UsernamePasswordAuthentication.unauthenticated(request.username(), request.password()));
+        } catch (AuthenticationException | BizException e) {
+            recordLoginFailure();
+            throw e;
         }
 
-        var _authentication = authenticationManager.authenticate(UsernamePasswordAuthentication.unauthenticated(request.username(), request.password()));
         if (!(_authentication instanceof UsernamePasswordAuthentication authentication)) {
             log.error("Type mismatched, required type is UsernamePasswordAuthentication but got {}.", _authentication.getClass());
             throw new BizException(HttpStatus.INTERNAL_SERVER_ERROR, "Cannot perform login due to server crashes.");
         }
 
-        var token = tokenClient.generateToken(authentication.getDetails());
+        var grant = refreshTokenManager.issue(authentication.getName());
+        var token = tokenClient.generateToken(authentication.getDetails(), authentication.getAuthoritySet(), grant.familyId());
+
+        return new LoginSuccessResponse(token, grant.refreshToken(), authentication.getDetails());
+    }
+
+    /**
+     * Record a failed login, which raises the difficulty of proof-of-work challenges during a
+     * login flood.
+     */
+    private void recordLoginFailure() {
+        try {
+            loginFailureManager.recordFailure();
+        } catch (Exception e) {
+            log.warn("Cannot record login failure.", e);
+        }
+    }
+
+    /**
+     * Verify the captcha answer of a login request.
+     * <p>
+     * Signed and proof-of-work challenges are verified locally and captcha IDs are looked up in
+     * Redis. The form of
+     * the identifier decides which one applies, so captchas issued before the captcha type was
+     * changed can still be answered.
+     *
+     * @param uuid    captcha identifier or signed challenge
+     * @param captcha the captcha code entered by the user
+     */
+    private void verifyCaptcha(String uuid, String captcha) {
+        if (signedCaptchaManager.isChallenge(uuid)) {
+            signedCaptchaManager.verify(uuid, captcha);
+            return;
+        }
+
+        var rawCaptcha = Objects.nonNull(uuid) ? captchaManager.getCaptcha(uuid) : null;
+        if (Objects.isNull(rawCaptcha) || rawCaptcha.isBlank()) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "未找到验证码");
+        }
+        if (!rawCaptcha.equalsIgnoreCase(captcha)) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "验证码错误");
+        }
+    }
+
+    /**
+     * Issue a new access token in exchange for a refresh token. The refresh token is rotated, and
+     * no password or captcha is checked.
+     *
+     * @param request refresh request
+     * @return detailed user info, a new access token and the next refresh token
+     */
+    public LoginSuccessResponse refresh(RefreshTokenRequest request) {
+        var grant = refreshTokenManager.rotate(request.refreshToken());
+
+        var user = userManager.queryByUsername(grant.username());
+        if (Objects.isNull(user)) {
+            throw new BizException(HttpStatus.UNAUTHORIZED, "用户不存在");
+        }
+        user = user.withoutPassword();
+
+        var authorities = authorityManager.queryByUserId(user.getId())
+                .stream()
+                .map(Authority::asGrantedAuthority)
+                .toList();
+        var token = tokenClient.generateToken(user, authorityRegistry.toAuthoritySet(authorities), grant.familyId());
 
-        return new LoginSuccessResponse(token, authentication.getDetails());
+        return new LoginSuccessResponse(token, grant.refreshToken(), user);
+    }
+
+    /**
+     * Revoke the token of the current request and the refresh token family issued with it, so that
+     * neither can be used again.
+     *
+     * @param authorization value of the {@code Authorization} header
+     */
+    public void logout(String authorization) {
+        if (Objects.isNull(authorization) || !authorization.startsWith("Bearer ")) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "未携带令牌");
+        }
+
+        var token = verifiedTokenCache.verify(authorization.substring(7));
+        tokenRevocationManager.revoke(token);
+
+        var refreshFamilyId = token.getClaim(TokenClient.CLAIM_REFRESH_FAMILY_ID).asString();
+        if (Objects.nonNull(refreshFamilyId)) {
+            refreshTokenManager.revokeFamily(refreshFamilyId);
+        }
     }
 
     public boolean getRegisterEnabled() {
@@ -1,18 +1,18 @@
 package com.onixbyte.helix.service;
 
-import com.onixbyte.captcha.Producer;
-import com.onixbyte.helix.constant.FileFormat;
+import com.onixbyte.helix.constant.CaptchaType;
 import com.onixbyte.helix.domain.web.response.CaptchaResponse;
 import com.onixbyte.helix.exception.BizException;
 import com.onixbyte.helix.manager.CaptchaManager;
 import com.onixbyte.helix.manager.CaptchaSettingManager;
-import com.onixbyte.tuple.ImmutableBiTuple;
+import com.onixbyte.helix.security.captcha.CaptchaPool;
+import com.onixbyte.helix.security.captcha.PreparedCaptcha;
+import com.onixbyte.helix.security.captcha.ProofOfWorkDifficulty;
+import com.onixbyte.helix.security.captcha.SignedCaptchaManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.util.FastByteArrayOutputStream;
 
-import javax.imageio.ImageIO;
-import java.io.IOException;
 import java.util.Base64;
 import java.util.UUID;
 
@@ -21,48 +21,75 @@ public class CaptchaService {
 
     private final CaptchaManager captchaManager;
     private final CaptchaSettingManager captchaSettingManager;
+    private final CaptchaPool captchaPool;
+    private final SignedCaptchaManager signedCaptchaManager;
+    private final ProofOfWorkDifficulty proofOfWorkDifficulty;
 
     @Autowired
-    public CaptchaService(CaptchaManager captchaManager, CaptchaSettingManager captchaSettingManager) {
+    public CaptchaService(CaptchaManager captchaManager, CaptchaSettingManager captchaSettingManager, CaptchaPool captchaPool, SignedCaptchaManager signedCaptchaManager, ProofOfWorkDifficulty proofOfWorkDifficulty) {
         this.captchaManager = captchaManager;
         this.captchaSettingManager = captchaSettingManager;
+        this.captchaPool = captchaPool;
+        this.signedCaptchaManager = signedCaptchaManager;
+        this.proofOfWorkDifficulty = proofOfWorkDifficulty;
     }
 
-    private Producer producer;
+    /**
+     * Build captcha information.
+     *
+     * @return data URL of captcha image and the identifier of the captcha code, or the
+     * proof-of-work challenge and its difficulty
+     */
+    public CaptchaResponse buildCaptcha() {
+        if (!captchaSettingManager.isCaptchaEnabled()) {
+            return null;
+        }
+
+        var captchaType = captchaSettingManager.getCaptchaType();
+        if (captchaType == CaptchaType.PROOF_OF_WORK) {
+            // 工作量证明无需生成图片，难度随登录失败率调整
+            var difficulty = proofOfWorkDifficulty.current();
+            return new CaptchaResponse(null, signedCaptchaManager.sealProofOfWork(difficulty), captchaType, difficulty);
+        }
 
-    @Autowired(required = false)
-    public void setProducer(Producer producer) {
-        this.producer = producer;
+        var issuedCaptcha = issueCaptcha(captchaType);
+        var captcha = issuedCaptcha.captcha();
+        var captchaDataUrl = "data:" + captcha.type().getMediaType() + ";base64," +
+                Base64.getEncoder().encodeToString(captcha.image());
+        return new CaptchaResponse(captchaDataUrl, issuedCaptcha.uuid(), captchaType, null);
     }
 
     /**
-     * Build captcha information.
+     * Issue a captcha whose image is served as raw bytes.
      *
-     * @return left value is data URL of captcha image, and right value is the identifier of
-     * the captcha code
+     * @return the issued captcha, or {@code null} if captcha is disabled
+     * @throws BizException if the captcha type has no image
      */
-    public CaptchaResponse buildCaptcha() {
+    public IssuedCaptcha issueCaptcha() {
         if (!captchaSettingManager.isCaptchaEnabled()) {
             return null;
         }
 
-        // 生成 UUID 及验证码
-        var uuid = UUID.randomUUID().toString().replaceAll("-", "");
-        var captchaCode = producer.createText();
-
-        // 将验证码保存到缓存中
-        captchaManager.setCaptcha(uuid, captchaCode);
-
-        // 生成验证码图片
-        var captchaImage = producer.createImage(captchaCode);
-        try (var byteArrayOutputStream = new FastByteArrayOutputStream()) {
-            ImageIO.write(captchaImage, FileFormat.IMAGE_JPEG, byteArrayOutputStream);
-            var captchaDataUrl = "data:image/jpeg;base64," +
-                    Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
-            return new CaptchaResponse(captchaDataUrl, uuid);
-        } catch (IOException e) {
-            throw new BizException("无法生成验证码图片。");
+        var captchaType = captchaSettingManager.getCaptchaType();
+        if (captchaType == CaptchaType.PROOF_OF_WORK) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "当前验证码类型不提供图片");
+        }
+        return issueCaptcha(captchaType);
+    }
+
+    private IssuedCaptcha issueCaptcha(CaptchaType captchaType) {
+        // 从验证码池中取出预先生成的验证码
+        var captcha = captchaPool.take(captchaType);
+
+        // 签名验证码将答案签入挑战中，以挑战代替 UUID 返回，无需写入缓存
+        if (captchaType == CaptchaType.SIGNED) {
+            return new IssuedCaptcha(signedCaptchaManager.seal(captcha.code()), captcha);
         }
+
+        // 生成 UUID 并将验证码保存到缓存中
+        var uuid = UUID.randomUUID().toString().replaceAll("-", "");
+        captchaManager.setCaptcha(uuid, captcha.code());
+        return new IssuedCaptcha(uuid, captcha);
     }
 
     public String getCaptcha(String uuid) {
@@ -72,4 +99,16 @@ public class CaptchaService {
     public boolean isCaptchaEnabled() {
         return captchaSettingManager.isCaptchaEnabled();
     }
+
+    /**
+     * A captcha handed out to a client.
+     *
+     * @param uuid    identifier of the captcha code, or the challenge of a signed captcha
+     * @param captcha the captcha
+     */
+    public record IssuedCaptcha(
+            String uuid,
+            PreparedCaptcha captcha
+    ) {
+    }
 }
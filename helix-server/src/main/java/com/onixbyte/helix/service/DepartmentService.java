@@ -1,6 +1,5 @@
 package com.onixbyte.helix.service;
 
-import com.onixbyte.helix.domain.common.PageRequest;
 import com.onixbyte.helix.domain.entity.Department;
 import com.onixbyte.helix.domain.model.TreeNode;
 import com.onixbyte.helix.manager.DepartmentManager;
@@ -18,7 +17,6 @@ public class DepartmentService {
     }
 
     public List<TreeNode<Department>> getDepartmentTree() {
-        var departments = departmentManager.selectAll(PageRequest.unpaged());
-        return departmentManager.buildTree(departments);
+        return departmentManager.queryTree();
     }
 }
@@ -1,7 +1,38 @@
 package com.onixbyte.helix.service;
 
+import com.onixbyte.helix.domain.entity.Setting;
+import com.onixbyte.helix.manager.SettingManager;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class SettingService {
+
+    private final SettingManager settingManager;
+
+    public SettingService(SettingManager settingManager) {
+        this.settingManager = settingManager;
+    }
+
+    /**
+     * Get all settings.
+     *
+     * @return all settings
+     */
+    public List<Setting> getSettings() {
+        return settingManager.getAll();
+    }
+
+    /**
+     * Update the current value of a setting. The change reaches every node through the settings
+     * change notification.
+     *
+     * @param name  setting name
+     * @param value new value, {@code null} restores the default value
+     * @return the updated setting
+     */
+    public Setting updateSetting(String name, String value) {
+        return settingManager.update(name, value);
+    }
 }
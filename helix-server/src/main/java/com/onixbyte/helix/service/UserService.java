@@ -2,25 +2,29 @@ package com.onixbyte.helix.service;
 
 import com.onixbyte.helix.constant.AssetPrefix;
 import com.onixbyte.helix.constant.UserStatus;
+import com.onixbyte.helix.domain.common.Cursor;
+import com.onixbyte.helix.domain.common.CursorPage;
 import com.onixbyte.helix.domain.entity.Authority;
 import com.onixbyte.helix.domain.entity.User;
 import com.onixbyte.helix.domain.entity.UserRole;
 import com.onixbyte.helix.domain.web.request.AddUserRequest;
 import com.onixbyte.helix.domain.web.request.QueryUserRequest;
 import com.onixbyte.helix.domain.web.request.UpdateUserRequest;
+import com.onixbyte.helix.exception.BizException;
 import com.onixbyte.helix.manager.RoleManager;
 import com.onixbyte.helix.manager.UserManager;
 import com.onixbyte.helix.manager.UserRoleManager;
 import com.onixbyte.helix.properties.AssetProperties;
 import com.onixbyte.helix.security.authentication.UsernamePasswordAuthentication;
+import com.onixbyte.helix.security.password.PasswordHashingExecutor;
 import com.onixbyte.helix.utils.SecurityUtil;
 import com.onixbyte.identitygenerator.IdentityGenerator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,12 +35,17 @@ import java.util.Optional;
 @Service
 public class UserService {
 
+    /**
+     * Largest page accepted by keyset pagination, so that no single request reads the whole table.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final UserManager userManager;
     private final IdentityGenerator<Long> userIdentityGenerator;
     private final AssetProperties assetProperties;
     private final RoleManager roleManager;
     private final UserRoleManager userRoleManager;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     public UserService(
             UserManager userManager,
@@ -44,19 +53,37 @@ public class UserService {
             AssetProperties assetProperties,
             RoleManager roleManager,
             UserRoleManager userRoleManager,
-            PasswordEncoder passwordEncoder) {
+            PasswordHashingExecutor passwordHashingExecutor) {
         this.userManager = userManager;
         this.userIdentityGenerator = userIdentityGenerator;
         this.assetProperties = assetProperties;
         this.roleManager = roleManager;
         this.userRoleManager = userRoleManager;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     public Page<User> getUsers(Pageable pageable, QueryUserRequest request) {
         return userManager.queryPage(pageable, request);
     }
 
+    /**
+     * Get users with keyset pagination.
+     *
+     * @param cursor   encoded cursor from the previous page, empty for the first page
+     * @param pageSize page size, from 1 to {@link #MAX_PAGE_SIZE}
+     * @param request  query conditions
+     * @return page result
+     */
+    public CursorPage<User> getUsers(String cursor, int pageSize, QueryUserRequest request) {
+        if (pageSize <= 0) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "分页大小必须大于 0");
+        }
+        if (pageSize > MAX_PAGE_SIZE) {
+            throw new BizException(HttpStatus.BAD_REQUEST, "分页大小不能超过 " + MAX_PAGE_SIZE);
+        }
+        return userManager.queryPage(Cursor.decode(cursor), pageSize, request);
+    }
+
     @Transactional(rollbackFor = Throwable.class)
     public User addUser(AddUserRequest request) {
         var createTime = LocalDateTime.now();
@@ -72,7 +99,7 @@ public class UserService {
         var user = userManager.save(User.builder()
                 .id(userIdentityGenerator.nextId())
                 .username(request.username())
-                .password(passwordEncoder.encode(request.password()))
+                .password(passwordHashingExecutor.encode(request.password()))
                 .fullName(request.fullName())
                 .email(request.email())
                 .countryCode(request.countryCode())
@@ -0,0 +1,34 @@
+package com.onixbyte.helix.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Utility class providing message digests of strings.
+ * <p>
+ * Digests are used wherever a secret such as a token has to be identified without being stored,
+ * for example as a cache or Redis key.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+public class HashUtil {
+
+    /**
+     * Computes the SHA-256 digest of the UTF-8 bytes of a string.
+     *
+     * @param content the string to digest
+     * @return the digest as base64url without padding
+     */
+    public static String sha256(String content) {
+        try {
+            var messageDigest = MessageDigest.getInstance("SHA-256");
+            var hash = messageDigest.digest(content.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM.", e);
+        }
+    }
+}
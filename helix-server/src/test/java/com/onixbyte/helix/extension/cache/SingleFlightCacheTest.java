@@ -0,0 +1,235 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests {@link SingleFlightCache}.
+ * <p>
+ * Coalescing within a node needs no Redis. The lease tests need a running Redis, read from the
+ * {@code REDIS_HOST} and {@code REDIS_PORT} environment variables, {@code localhost:6379} by
+ * default, and are skipped if it cannot be reached. They use database {@code 15}, or
+ * {@code REDIS_DATABASE} if set.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+class SingleFlightCacheTest {
+
+    private static final String CACHE_NAME = "single-flight";
+
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10L);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5L);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+
+    private Cache delegate;
+    private ExecutorService executor;
+
+    @BeforeAll
+    static void connectRedis() {
+        var configuration = new RedisStandaloneConfiguration(
+                Objects.requireNonNullElse(System.getenv("REDIS_HOST"), "localhost"),
+                Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_PORT"), "6379")));
+        configuration.setDatabase(Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_DATABASE"), "15")));
+        var _connectionFactory = new LettuceConnectionFactory(configuration);
+        try {
+            _connectionFactory.afterPropertiesSet();
+            _connectionFactory.start();
+            try (var connection = _connectionFactory.getConnection()) {
+                connection.ping();
+            }
+        } catch (Exception e) {
+            _connectionFactory.destroy();
+            return;
+        }
+
+        connectionFactory = _connectionFactory;
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(JacksonSerialiser.INSTANCE);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void closeRedis() {
+        if (Objects.nonNull(connectionFactory)) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapCache(CACHE_NAME, false);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesRunTheLoaderOnce() throws Exception {
+        var cache = new SingleFlightCache(delegate, null, Duration.ZERO);
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var callers = 8;
+        var started = new CountDownLatch(callers);
+
+        var results = new ArrayList<Future<String>>();
+        for (var i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                return cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                });
+            }));
+        }
+        assertThat(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        Thread.sleep(100L);
+        release.countDown();
+
+        for (var result : results) {
+            assertThat(result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(delegate.get("key", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    void nullIsReturnedButNotCached() {
+        var cache = new SingleFlightCache(delegate, null, Duration.ZERO);
+        var loads = new AtomicInteger();
+
+        assertThat(cache.get("key", () -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(delegate.get("key")).isNull();
+
+        cache.get("key", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loaderFailureReachesTheCallerAndIsNotCached() {
+        var cache = new SingleFlightCache(delegate, null, Duration.ZERO);
+
+        assertThatThrownBy(() -> cache.get("key", () -> {
+            throw new IllegalStateException("database is down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void leaseIsReleasedAfterLoading() {
+        assumeRedis();
+        var cache = new SingleFlightCache(delegate, redisTemplate, LEASE_TIME);
+        var key = UUID.randomUUID().toString();
+
+        assertThat(cache.get(key, () -> "value")).isEqualTo("value");
+
+        assertThat(redisTemplate.hasKey(leaseKey(key))).isFalse();
+    }
+
+    @Test
+    void leaseIsReleasedAfterLoaderFailure() {
+        assumeRedis();
+        var cache = new SingleFlightCache(delegate, redisTemplate, LEASE_TIME);
+        var key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> cache.get(key, () -> {
+            throw new IllegalStateException("database is down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class);
+
+        assertThat(redisTemplate.hasKey(leaseKey(key))).isFalse();
+    }
+
+    @Test
+    void waiterReturnsTheValueLoadedByTheLeaseHolder() throws Exception {
+        assumeRedis();
+        var cache = new SingleFlightCache(delegate, redisTemplate, LEASE_TIME);
+        var key = UUID.randomUUID().toString();
+        var loads = new AtomicInteger();
+        // another node holds the lease
+        redisTemplate.opsForValue().set(leaseKey(key), "other-node", LEASE_TIME);
+
+        var result = CompletableFuture.supplyAsync(() -> cache.get(key, () -> {
+            loads.incrementAndGet();
+            return "loaded-here";
+        }), executor);
+        Thread.sleep(100L);
+        assertThat(result).isNotDone();
+
+        delegate.put(key, "loaded-elsewhere");
+
+        assertThat(result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo("loaded-elsewhere");
+        assertThat(loads).hasValue(0);
+        redisTemplate.delete(leaseKey(key));
+    }
+
+    @Test
+    void waiterLoadsAsSoonAsTheLeaseIsReleasedWithoutValue() throws Exception {
+        assumeRedis();
+        var cache = new SingleFlightCache(delegate, redisTemplate, LEASE_TIME);
+        var key = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(leaseKey(key), "other-node", LEASE_TIME);
+
+        var result = CompletableFuture.supplyAsync(() -> cache.get(key, () -> "loaded-here"), executor);
+        Thread.sleep(100L);
+        assertThat(result).isNotDone();
+
+        // the other node found nothing, or failed, and released its lease
+        redisTemplate.delete(leaseKey(key));
+
+        // well before the lease time would have passed
+        assertThat(result.get(2L, TimeUnit.SECONDS)).isEqualTo("loaded-here");
+        assertThat(delegate.get(key, String.class)).isEqualTo("loaded-here");
+        assertThat(redisTemplate.hasKey(leaseKey(key))).isFalse();
+    }
+
+    private static String leaseKey(String key) {
+        return "cache-lease::" + CACHE_NAME + "::" + key;
+    }
+
+    private static void assumeRedis() {
+        Assumptions.assumeTrue(Objects.nonNull(redisTemplate), "Redis is not available.");
+    }
+}
@@ -0,0 +1,265 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import io.lettuce.core.KillArgs;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests {@link TrackedCache} and the tracking connection of {@link ClientTrackingDecorator}
+ * against a running Redis 6 or later.
+ * <p>
+ * The server is read from the {@code REDIS_HOST} and {@code REDIS_PORT} environment variables,
+ * {@code localhost:6379} by default, and the tests are skipped if it cannot be reached. They use
+ * database {@code 15}, or {@code REDIS_DATABASE} if set, and flush it.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+class TrackedCacheIntegrationTest {
+
+    private static final String CACHE_NAME = "tracked";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5L);
+
+    private static RedisURI redisUri;
+    private static RedisClient adminClient;
+    private static StatefulRedisConnection<String, String> admin;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCache redisCache;
+    private ClientTrackingDecorator.TrackingConnection trackingConnection;
+    private com.github.benmanes.caffeine.cache.Cache<String, byte[]> localCache;
+    private TrackedCache trackedCache;
+
+    @BeforeAll
+    static void connectAdmin() {
+        redisUri = RedisURI.builder()
+                .withHost(Objects.requireNonNullElse(System.getenv("REDIS_HOST"), "localhost"))
+                .withPort(Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_PORT"), "6379")))
+                .withDatabase(Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_DATABASE"), "15")))
+                .withTimeout(Duration.ofSeconds(2L))
+                .build();
+        adminClient = RedisClient.create(redisUri);
+        try {
+            admin = adminClient.connect();
+        } catch (Exception e) {
+            adminClient.shutdown();
+            adminClient = null;
+        }
+        Assumptions.assumeTrue(Objects.nonNull(admin), "Redis is not available at " + redisUri);
+    }
+
+    @AfterAll
+    static void closeAdmin() {
+        if (Objects.nonNull(admin)) {
+            admin.close();
+        }
+        if (Objects.nonNull(adminClient)) {
+            adminClient.shutdown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        admin.sync().flushdb();
+
+        var configuration = new RedisStandaloneConfiguration(redisUri.getHost(), redisUri.getPort());
+        configuration.setDatabase(redisUri.getDatabase());
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        var cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(JacksonSerialiser.INSTANCE)))
+                .build();
+        cacheManager.afterPropertiesSet();
+        redisCache = (RedisCache) cacheManager.getCache(CACHE_NAME);
+
+        trackingConnection = new ClientTrackingDecorator.TrackingConnection(connectionFactory);
+        localCache = Caffeine.newBuilder()
+                .maximumSize(100L)
+                .expireAfterWrite(Duration.ofMinutes(1L))
+                .build();
+        trackedCache = new TrackedCache(redisCache, trackingConnection, localCache);
+        trackingConnection.register(trackedCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        trackingConnection.close();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void invalidationOfWrittenKeyDropsLocalCopy() {
+        redisCache.put("a", "first");
+        assertThat(trackedCache.get("a", String.class)).isEqualTo("first");
+        assertThat(localCache.getIfPresent(redisKey("a"))).isNotNull();
+
+        redisCache.put("a", "second");
+
+        awaitUntil(() -> Objects.isNull(localCache.getIfPresent(redisKey("a"))));
+        assertThat(trackedCache.get("a", String.class)).isEqualTo("second");
+    }
+
+    @Test
+    void invalidationOfSeveralKeysDropsEachLocalCopy() {
+        redisCache.put("a", "a");
+        redisCache.put("b", "b");
+        redisCache.put("c", "c");
+        trackedCache.get("a");
+        trackedCache.get("b");
+        trackedCache.get("c");
+
+        admin.sync().del(redisKey("a"), redisKey("b"));
+
+        awaitUntil(() -> Objects.isNull(localCache.getIfPresent(redisKey("a")))
+                && Objects.isNull(localCache.getIfPresent(redisKey("b"))));
+        assertThat(localCache.getIfPresent(redisKey("c"))).isNotNull();
+        assertThat(trackedCache.get("a")).isNull();
+    }
+
+    @Test
+    void flushDropsEveryLocalCopy() {
+        redisCache.put("a", "a");
+        redisCache.put("b", "b");
+        trackedCache.get("a");
+        trackedCache.get("b");
+        assertThat(localCache.estimatedSize()).isEqualTo(2L);
+
+        // Redis reports a flush as an invalidation with a null key list
+        admin.sync().flushdb();
+
+        awaitUntil(() -> localCache.asMap().isEmpty());
+    }
+
+    @Test
+    void reconnectDropsEveryLocalCopyAndTracksAgain() {
+        redisCache.put("a", "first");
+        trackedCache.get("a");
+        assertThat(localCache.getIfPresent(redisKey("a"))).isNotNull();
+
+        admin.sync().clientKill(KillArgs.Builder.id(trackingClientId()));
+
+        awaitUntil(() -> localCache.asMap().isEmpty());
+
+        // the next read opens a new tracking connection, whose reads are tracked as well
+        assertThat(trackedCache.get("a", String.class)).isEqualTo("first");
+        assertThat(localCache.getIfPresent(redisKey("a"))).isNotNull();
+
+        redisCache.put("a", "second");
+
+        awaitUntil(() -> Objects.isNull(localCache.getIfPresent(redisKey("a"))));
+        assertThat(trackedCache.get("a", String.class)).isEqualTo("second");
+    }
+
+    @Test
+    void invalidationDuringReadDoesNotLeaveStaleCopy() throws Exception {
+        var readers = 4;
+        var executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            for (var round = 0; round < 20; round++) {
+                assertNoStaleCopyAfterConcurrentWrites(executor, readers, round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertNoStaleCopyAfterConcurrentWrites(ExecutorService executor, int readers, int round) throws Exception {
+        redisCache.put("race", "initial");
+        trackedCache.get("race");
+
+        var running = new AtomicBoolean(true);
+        var started = new CountDownLatch(readers + 1);
+        var tasks = new ArrayList<Future<?>>();
+        tasks.add(executor.submit(() -> {
+            started.countDown();
+            var version = 0;
+            while (running.get()) {
+                redisCache.put("race", "version-" + version++);
+            }
+        }));
+        for (var i = 0; i < readers; i++) {
+            tasks.add(executor.submit(() -> {
+                started.countDown();
+                while (running.get()) {
+                    trackedCache.get("race");
+                }
+            }));
+        }
+
+        assertThat(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        Thread.sleep(100L);
+        running.set(false);
+        for (var task : tasks) {
+            task.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        var expected = "final-" + round;
+        redisCache.put("race", expected);
+        // replies on the tracking connection follow every invalidation sent before them
+        trackingConnection.get(redisKey("barrier"));
+
+        assertThat(trackedCache.get("race", String.class)).isEqualTo(expected);
+    }
+
+    private String redisKey(String key) {
+        return redisCache.getCacheConfiguration().getKeyPrefixFor(CACHE_NAME) + key;
+    }
+
+    private long trackingClientId() {
+        return Arrays.stream(admin.sync().clientList().split("\n"))
+                .filter((client) -> client.matches(".* flags=\\w*t\\w* .*"))
+                .filter((client) -> client.contains(" db=" + redisUri.getDatabase() + " "))
+                .map((client) -> client.substring(3, client.indexOf(' ')))
+                .map(Long::parseLong)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No tracking client is connected."));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        var deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Condition not met within " + TIMEOUT + ".");
+            }
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.onixbyte.helix.extension.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onixbyte.helix.extension.redis.serializer.JacksonSerialiser;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that writes made through {@link TransactionAwareCache} are deferred until commit, sent
+ * through {@link BatchingCacheWriter} and announced only once they have reached Redis.
+ * <p>
+ * The cache under test is wired like a cache with an in-process tier: a {@link RedisCache} on a
+ * {@link BatchingCacheWriter}, wrapped in a {@link TwoTierCache} whose invalidations are deferred
+ * with {@link CacheWriteBatch#afterFlush(Runnable)}, wrapped by the
+ * {@link TransactionAwareDecorator}. Transactions are driven by a transaction manager without a
+ * resource, which runs the same synchronisation callbacks as a JDBC one.
+ * <p>
+ * The server is read from the {@code REDIS_HOST} and {@code REDIS_PORT} environment variables,
+ * {@code localhost:6379} by default, and the tests are skipped if it cannot be reached. They use
+ * database {@code 15}, or {@code REDIS_DATABASE} if set, and flush it.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+class TransactionAwareCacheIntegrationTest {
+
+    private static final String CACHE_NAME = "transactional";
+
+    private static RedisURI redisUri;
+    private static RedisClient adminClient;
+    private static StatefulRedisConnection<String, String> admin;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCache redisCache;
+    private Cache cache;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Invalidations in the order they were announced, each with whether the key existed in Redis
+     * at that moment.
+     */
+    private List<String> announcements;
+
+    @BeforeAll
+    static void connectAdmin() {
+        redisUri = RedisURI.builder()
+                .withHost(Objects.requireNonNullElse(System.getenv("REDIS_HOST"), "localhost"))
+                .withPort(Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_PORT"), "6379")))
+                .withDatabase(Integer.parseInt(Objects.requireNonNullElse(System.getenv("REDIS_DATABASE"), "15")))
+                .withTimeout(Duration.ofSeconds(2L))
+                .build();
+        adminClient = RedisClient.create(redisUri);
+        try {
+            admin = adminClient.connect();
+        } catch (Exception e) {
+            adminClient.shutdown();
+            adminClient = null;
+        }
+        Assumptions.assumeTrue(Objects.nonNull(admin), "Redis is not available at " + redisUri);
+    }
+
+    @AfterAll
+    static void closeAdmin() {
+        if (Objects.nonNull(admin)) {
+            admin.close();
+        }
+        if (Objects.nonNull(adminClient)) {
+            adminClient.shutdown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        admin.sync().flushdb();
+
+        var configuration = new RedisStandaloneConfiguration(redisUri.getHost(), redisUri.getPort());
+        configuration.setDatabase(redisUri.getDatabase());
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        var cacheWriter = new BatchingCacheWriter(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                connectionFactory);
+        var cacheManager = RedisCacheManager.RedisCacheManagerBuilder.fromCacheWriter(cacheWriter)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(JacksonSerialiser.INSTANCE)))
+                .build();
+        cacheManager.afterPropertiesSet();
+        redisCache = (RedisCache) cacheManager.getCache(CACHE_NAME);
+
+        announcements = new CopyOnWriteArrayList<>();
+        var twoTierCache = new TwoTierCache(redisCache, Caffeine.newBuilder().maximumSize(100L).<String, Object>build(),
+                (key) -> CacheWriteBatch.afterFlush(() -> announcements.add(key + "=" + exists(key))));
+        cache = new TransactionAwareDecorator(cacheWriter).decorate(twoTierCache);
+
+        transactionTemplate = new TransactionTemplate(new ResourcelessTransactionManager());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void writeInsideCommittedTransactionLandsAfterCommit() {
+        transactionTemplate.executeWithoutResult((status) -> {
+            cache.put("a", "1");
+            cache.put("b", "2");
+
+            assertThat(exists("a")).isFalse();
+            assertThat(exists("b")).isFalse();
+            assertThat(announcements).isEmpty();
+        });
+
+        assertThat(redisCache.get("a", String.class)).isEqualTo("1");
+        assertThat(redisCache.get("b", String.class)).isEqualTo("2");
+        // other nodes are told only once both writes have reached Redis
+        assertThat(announcements).containsExactly("a=true", "b=true");
+    }
+
+    @Test
+    void evictionInsideCommittedTransactionLandsAfterCommit() {
+        cache.put("a", "1");
+        announcements.clear();
+
+        transactionTemplate.executeWithoutResult((status) -> {
+            cache.evict("a");
+
+            assertThat(exists("a")).isTrue();
+        });
+
+        assertThat(exists("a")).isFalse();
+        assertThat(cache.get("a")).isNull();
+        assertThat(announcements).containsExactly("a=false");
+    }
+
+    @Test
+    void writesInsideTransactionAreAppliedInOrder() {
+        transactionTemplate.executeWithoutResult((status) -> {
+            cache.put("a", "1");
+            cache.evict("a");
+            cache.put("a", "2");
+        });
+
+        assertThat(redisCache.get("a", String.class)).isEqualTo("2");
+        assertThat(cache.get("a", String.class)).isEqualTo("2");
+    }
+
+    @Test
+    void rolledBackTransactionWritesNothing() {
+        cache.put("b", "1");
+        announcements.clear();
+
+        transactionTemplate.executeWithoutResult((status) -> {
+            cache.put("a", "1");
+            cache.evict("b");
+            status.setRollbackOnly();
+        });
+
+        assertThat(exists("a")).isFalse();
+        assertThat(cache.get("a")).isNull();
+        assertThat(redisCache.get("b", String.class)).isEqualTo("1");
+        assertThat(cache.get("b", String.class)).isEqualTo("1");
+        assertThat(announcements).isEmpty();
+    }
+
+    @Test
+    void writeOutsideTransactionGoesStraightThrough() {
+        cache.put("a", "1");
+
+        assertThat(redisCache.get("a", String.class)).isEqualTo("1");
+        assertThat(announcements).containsExactly("a=true");
+
+        cache.evict("a");
+
+        assertThat(exists("a")).isFalse();
+        assertThat(announcements).containsExactly("a=true", "a=false");
+    }
+
+    @Test
+    void transactionsDoNotShareTheirPendingWrites() {
+        transactionTemplate.executeWithoutResult((status) -> cache.put("a", "1"));
+        transactionTemplate.executeWithoutResult((status) -> {
+            cache.put("b", "2");
+            status.setRollbackOnly();
+        });
+
+        assertThat(redisCache.get("a", String.class)).isEqualTo("1");
+        assertThat(exists("b")).isFalse();
+        assertThat(announcements).containsExactly("a=true");
+    }
+
+    private boolean exists(String key) {
+        var redisKey = redisCache.getCacheConfiguration().getKeyPrefixFor(CACHE_NAME) + key;
+        return admin.sync().exists(redisKey) > 0;
+    }
+
+    /**
+     * A transaction manager without a transactional resource, which only runs the
+     * synchronisation callbacks around commit and rollback.
+     */
+    private static class ResourcelessTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.onixbyte.helix.extension.redis.serializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests {@link CompressingSerialiser} on top of both codecs of {@link CacheValueSerialiser}.
+ *
+ * @author zihluwang
+ * @since 1.0.0
+ */
+class CompressingSerialiserTest {
+
+    private static final int THRESHOLD = 256;
+
+    private DistributionSummary compressionRatio;
+
+    @BeforeEach
+    void setUp() {
+        compressionRatio = DistributionSummary.builder("cache.compression.ratio").register(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void valueBelowThresholdIsStoredUnchanged() {
+        var delegate = CacheValueSerialiser.of(CacheCodec.JSON);
+        var serialiser = new CompressingSerialiser(delegate, THRESHOLD, compressionRatio);
+        var value = "short";
+
+        var bytes = serialiser.serialize(value);
+
+        assertThat(bytes).isEqualTo(delegate.serialize(value));
+        assertThat(serialiser.deserialize(bytes)).isEqualTo(value);
+        assertThat(compressionRatio.count()).isZero();
+    }
+
+    @Test
+    void jsonValueAboveThresholdIsCompressedAndReadBack() {
+        var delegate = CacheValueSerialiser.of(CacheCodec.JSON);
+        var serialiser = new CompressingSerialiser(delegate, THRESHOLD, compressionRatio);
+        var value = repetitiveValue();
+
+        var uncompressed = delegate.serialize(value);
+        var bytes = serialiser.serialize(value);
+
+        assertThat(bytes[0]).isEqualTo(CompressingSerialiser.COMPRESSED_HEADER);
+        assertThat(ByteBuffer.wrap(bytes, 1, 4).getInt()).isEqualTo(uncompressed.length);
+        assertThat(bytes.length).isLessThan(uncompressed.length);
+        assertThat(serialiser.deserialize(bytes)).isEqualTo(value);
+        assertThat(compressionRatio.count()).isEqualTo(1L);
+        assertThat(compressionRatio.max()).isGreaterThan(1D);
+    }
+
+    @Test
+    void smileValueAboveThresholdIsCompressedAndReadBack() {
+        var delegate = CacheValueSerialiser.of(CacheCodec.SMILE);
+        var serialiser = new CompressingSerialiser(delegate, THRESHOLD, compressionRatio);
+        var value = repetitiveValue();
+
+        var bytes = serialiser.serialize(value);
+
+        // the compression header wraps the Smile header, which is restored on decompression
+        assertThat(bytes[0]).isEqualTo(CompressingSerialiser.COMPRESSED_HEADER);
+        assertThat(serialiser.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void valueThatDoesNotShrinkIsStoredUnchanged() {
+        var random = new Random(42L);
+        var incompressible = new byte[4 * THRESHOLD];
+        random.nextBytes(incompressible);
+        // make sure the random bytes cannot be mistaken for a compressed value
+        incompressible[0] = '{';
+        var serialiser = new CompressingSerialiser(bytesSerialiser(incompressible), THRESHOLD, compressionRatio);
+
+        var bytes = serialiser.serialize("ignored");
+
+        assertThat(bytes).isEqualTo(incompressible);
+        assertThat(compressionRatio.count()).isZero();
+    }
+
+    @Test
+    void serialiserWithoutThresholdStillReadsCompressedValues() {
+        var delegate = CacheValueSerialiser.of(CacheCodec.SMILE);
+        var compressing = new CompressingSerialiser(delegate, THRESHOLD, compressionRatio);
+        var reading = new CompressingSerialiser(delegate);
+        var value = repetitiveValue();
+
+        var compressed = compressing.serialize(value);
+        var uncompressed = reading.serialize(value);
+
+        assertThat(uncompressed).isEqualTo(delegate.serialize(value));
+        assertThat(reading.deserialize(compressed)).isEqualTo(value);
+        assertThat(compressing.deserialize(uncompressed)).isEqualTo(value);
+    }
+
+    @Test
+    void valuesOfEitherCodecAreReadByEitherSerialiser() {
+        var json = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.JSON), THRESHOLD, compressionRatio);
+        var smile = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.SMILE), THRESHOLD, compressionRatio);
+
+        for (var value : List.of("short", repetitiveValue())) {
+            assertThat(json.deserialize(smile.serialize(value))).isEqualTo(value);
+            assertThat(smile.deserialize(json.serialize(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void smileValueOfUnknownVersionIsRejected() {
+        var serialiser = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.SMILE), THRESHOLD, compressionRatio);
+        var bytes = serialiser.serialize("short");
+        assertThat(bytes[0]).isEqualTo(CacheValueSerialiser.SMILE_HEADER);
+        assertThat(bytes[1]).isEqualTo(CacheValueSerialiser.SMILE_VERSION);
+
+        bytes[1] = (byte) (CacheValueSerialiser.SMILE_VERSION + 1);
+
+        assertThatThrownBy(() -> serialiser.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void truncatedCompressedValueIsRejected() {
+        var serialiser = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.JSON), THRESHOLD, compressionRatio);
+        var bytes = serialiser.serialize(repetitiveValue());
+
+        assertThatThrownBy(() -> serialiser.deserialize(Arrays.copyOf(bytes, bytes.length / 2)))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serialiser.deserialize(Arrays.copyOf(bytes, 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void compressedValueWithInvalidLengthIsRejected() {
+        var serialiser = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.JSON), THRESHOLD, compressionRatio);
+        var bytes = serialiser.serialize(repetitiveValue());
+
+        ByteBuffer.wrap(bytes, 1, 4).putInt(-1);
+
+        assertThatThrownBy(() -> serialiser.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void pooledCompressorsAreReusedSafelyAcrossValues() {
+        var serialiser = new CompressingSerialiser(CacheValueSerialiser.of(CacheCodec.SMILE), THRESHOLD, compressionRatio);
+
+        for (var i = 0; i < 100; i++) {
+            var value = repetitiveValue() + i;
+            assertThat(serialiser.deserialize(serialiser.serialize(value))).isEqualTo(value);
+        }
+    }
+
+    private static String repetitiveValue() {
+        return "system:user:read,".repeat(100);
+    }
+
+    private static RedisSerializer<Object> bytesSerialiser(byte[] bytes) {
+        return new RedisSerializer<>() {
+            @Override
+            public byte[] serialize(Object value) {
+                return bytes;
+            }
+
+            @Override
+            public Object deserialize(byte[] bytes) {
+                return bytes;
+            }
+        };
+    }
+}